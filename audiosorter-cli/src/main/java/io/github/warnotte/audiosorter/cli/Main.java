@@ -1,14 +1,22 @@
 package io.github.warnotte.audiosorter.cli;
 
 import io.github.warnotte.audiosorter.core.AudioSorterEngine;
+import io.github.warnotte.audiosorter.core.ChannelCopyStrategy;
+import io.github.warnotte.audiosorter.core.ChecksumAlgorithm;
+import io.github.warnotte.audiosorter.core.CollisionPolicy;
+import io.github.warnotte.audiosorter.core.FileNamePolicy;
 import io.github.warnotte.audiosorter.core.MusicScanner;
+import io.github.warnotte.audiosorter.core.ReportCompression;
+import io.github.warnotte.audiosorter.core.ScanCache;
 import io.github.warnotte.audiosorter.core.SortConfiguration;
 import io.github.warnotte.audiosorter.coverart.CoverArtExtractor;
 import io.github.warnotte.audiosorter.coverart.MusicBrainzFetcher;
 import io.github.warnotte.audiosorter.listener.ConsoleProgressListener;
 import io.github.warnotte.audiosorter.listener.ConsoleScanListener;
+import io.github.warnotte.audiosorter.model.OrganizeMode;
 import io.github.warnotte.audiosorter.model.RunTotals;
 import io.github.warnotte.audiosorter.report.HtmlReportGenerator;
+import io.github.warnotte.audiosorter.report.JsonLinesReportSink;
 import io.github.warnotte.audiosorter.report.JsonReportGenerator;
 
 import picocli.CommandLine;
@@ -22,7 +30,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.stream.Stream;
@@ -83,6 +93,54 @@ public class Main implements Callable<Integer> {
         )
         private boolean noOpen = false;
 
+        @Option(
+            names = {"-t", "--threads"},
+            description = "Number of threads used to scan directories (default: 1)"
+        )
+        private int threads = 1;
+
+        @Option(
+            names = {"--tag-readers"},
+            description = "Read tags on n threads while a single walker lists directories (default: 0, read inline)"
+        )
+        private int tagReaders = 0;
+
+        @Option(
+            names = {"--full-tag-read"},
+            description = "Read every file with the full tag library instead of the header-only reader"
+        )
+        private boolean fullTagRead = false;
+
+        @Option(
+            names = {"--incremental"},
+            description = "Reuse cached tags for directories that did not change since the last scan"
+        )
+        private boolean incremental = false;
+
+        @Option(
+            names = {"--cache"},
+            description = "Scan cache file used by --incremental (default: ./audiosorter-cache.json)"
+        )
+        private Path cacheFile = Path.of("audiosorter-cache.json");
+
+        @Option(
+            names = {"--stream"},
+            description = "Write directory reports to directories.jsonl as they complete instead of keeping them in memory (no HTML/JSON report)"
+        )
+        private boolean stream = false;
+
+        @Option(
+            names = {"--json-compression"},
+            description = "Compress the JSON report: NONE, GZIP (report.json.gz) or ZSTD (report.json.zst) (default: NONE)"
+        )
+        private ReportCompression jsonCompression = ReportCompression.NONE;
+
+        @Option(
+            names = {"--compact-json"},
+            description = "Write the JSON report without indentation"
+        )
+        private boolean compactJson = false;
+
         @Override
         public Integer call() throws Exception {
             System.out.println("=== SCAN MODE ===");
@@ -90,21 +148,54 @@ public class Main implements Callable<Integer> {
             System.out.println();
 
             // Clean up and create reports directory
-            deleteDir(reportsDir.toFile());
-            Files.createDirectories(reportsDir);
+            cleanReportsDir(reportsDir);
 
             // Create scanner
             MusicScanner scanner = new MusicScanner(inputDir);
+            scanner.setThreads(threads);
+            scanner.setTagReaderThreads(tagReaders);
+            scanner.setFastTagReading(!fullTagRead);
             scanner.addListener(new ConsoleScanListener());
 
+            ScanCache cache = null;
+            if (incremental) {
+                cache = ScanCache.load(cacheFile);
+                scanner.setScanCache(cache);
+            }
+
             // Execute scan
-            RunTotals totals = scanner.scan();
+            RunTotals totals;
+            Path streamFile = reportsDir.resolve("directories.jsonl");
+            if (stream) {
+                try (JsonLinesReportSink sink = new JsonLinesReportSink(streamFile)) {
+                    scanner.setReportSink(sink);
+                    totals = scanner.scan();
+                }
+            } else {
+                totals = scanner.scan();
+            }
+
+            if (cache != null) {
+                System.out.println("Scan cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses");
+                try {
+                    cache.save();
+                } catch (IOException e) {
+                    System.err.println("Failed to save scan cache: " + e.getMessage());
+                }
+            }
+
+            if (stream) {
+                System.out.println("Directory reports written to: " + streamFile.toAbsolutePath());
+                return 0;
+            }
 
             // Generate reports
             SortConfiguration config = new SortConfiguration();
             config.setInputDirectory(inputDir);
             config.setOutputDirectory(inputDir);
             config.setDebugMode(true);
+            config.setReportCompression(jsonCompression);
+            config.setCompactJson(compactJson);
 
             generateReports(totals, config, reportsDir);
 
@@ -156,6 +247,150 @@ public class Main implements Callable<Integer> {
         )
         private boolean noOpen = false;
 
+        @Option(
+            names = {"-t", "--threads"},
+            description = "Number of threads used to scan directories (default: 1)"
+        )
+        private int threads = 1;
+
+        @Option(
+            names = {"--tag-readers"},
+            description = "Read tags on n threads while a single walker lists directories (default: 0, read inline)"
+        )
+        private int tagReaders = 0;
+
+        @Option(
+            names = {"--full-tag-read"},
+            description = "Read every file with the full tag library instead of the header-only reader"
+        )
+        private boolean fullTagRead = false;
+
+        @Option(
+            names = {"--pipeline"},
+            description = "Copy each directory as soon as it is scanned instead of scanning everything first"
+        )
+        private boolean pipeline = false;
+
+        @Option(
+            names = {"--copy-threads"},
+            description = "Number of files copied at once (default: 1)"
+        )
+        private int copyThreads = 1;
+
+        @Option(
+            names = {"--streams-per-store"},
+            description = "Concurrent copies per source/destination filesystem; rotational disks use 1 (default: 4)"
+        )
+        private int streamsPerStore = 4;
+
+        @Option(
+            names = {"--store-streams"},
+            description = "Concurrent copies for a given filesystem, e.g. --store-streams /dev/sdb1=1 (repeatable)"
+        )
+        private Map<String, Integer> storeStreams = new HashMap<>();
+
+        @Option(
+            names = {"--mode"},
+            description = "How files are placed: COPY, MOVE, HARDLINK, SYMLINK or REFLINK; falls back to a copy per file when unsupported (default: COPY)"
+        )
+        private OrganizeMode mode = OrganizeMode.COPY;
+
+        @Option(
+            names = {"--skip-unchanged"},
+            description = "Skip files whose destination already has the same size and modification time"
+        )
+        private boolean skipUnchanged = false;
+
+        @Option(
+            names = {"--compare-content"},
+            description = "With --skip-unchanged, compare file contents instead of modification times"
+        )
+        private boolean compareContent = false;
+
+        @Option(
+            names = {"--journal"},
+            description = "Journal of completed copies, used by --resume; removed after a sort without errors (default: ./audiosorter-journal.log)"
+        )
+        private Path journalFile = Path.of("audiosorter-journal.log");
+
+        @Option(
+            names = {"--resume"},
+            description = "Continue an interrupted sort from its journal, skipping the files it already copied"
+        )
+        private boolean resume = false;
+
+        @Option(
+            names = {"--checksum"},
+            description = "Checksum each file while copying: CRC32C, XXHASH64 or SHA256; digests are listed per file in report.json"
+        )
+        private ChecksumAlgorithm checksum;
+
+        @Option(
+            names = {"--verify"},
+            description = "Re-read each destination after copying and fail files whose checksum differs (requires --checksum)"
+        )
+        private boolean verify = false;
+
+        @Option(
+            names = {"--max-rate"},
+            description = "Limit the copy rate to this many MB/s across all copy threads (default: 0 = unlimited)"
+        )
+        private double maxRate = 0;
+
+        @Option(
+            names = {"--artist-pattern"},
+            description = "Artist folder pattern (default: " + SortConfiguration.DEFAULT_ARTIST_FOLDER_PATTERN + ")"
+        )
+        private String artistPattern = SortConfiguration.DEFAULT_ARTIST_FOLDER_PATTERN;
+
+        @Option(
+            names = {"--album-pattern"},
+            description = "Album folder pattern (default: " + SortConfiguration.DEFAULT_ALBUM_FOLDER_PATTERN + ")"
+        )
+        private String albumPattern = SortConfiguration.DEFAULT_ALBUM_FOLDER_PATTERN;
+
+        @Option(
+            names = {"--name-policy"},
+            description = "File name rules the folder names follow: PORTABLE, WINDOWS, MACOS or LINUX (default: PORTABLE)"
+        )
+        private FileNamePolicy namePolicy = FileNamePolicy.PORTABLE;
+
+        @Option(
+            names = {"--on-collision"},
+            description = "When two source files map to the same destination: RENAME the later folder to \"Album (2)\", SKIP it, OVERWRITE, or FAIL before copying (default: RENAME)"
+        )
+        private CollisionPolicy onCollision = CollisionPolicy.RENAME;
+
+        @Option(
+            names = {"--copy-method"},
+            description = "How files are copied: FILES (Files.copy) or CHANNEL (chunked FileChannel.transferTo) (default: FILES)"
+        )
+        private CopyMethod copyMethod = CopyMethod.FILES;
+
+        @Option(
+            names = {"--chunk-size"},
+            description = "Chunk size in MB for --copy-method CHANNEL (default: 8)"
+        )
+        private int chunkSizeMb = 8;
+
+        @Option(
+            names = {"--preallocate"},
+            description = "Size destination files before copying (--copy-method CHANNEL)"
+        )
+        private boolean preallocate = false;
+
+        @Option(
+            names = {"--json-compression"},
+            description = "Compress the JSON report: NONE, GZIP (report.json.gz) or ZSTD (report.json.zst) (default: NONE)"
+        )
+        private ReportCompression jsonCompression = ReportCompression.NONE;
+
+        @Option(
+            names = {"--compact-json"},
+            description = "Write the JSON report without indentation"
+        )
+        private boolean compactJson = false;
+
         @Override
         public Integer call() throws Exception {
             System.out.println("=== SORT MODE" + (dryRun ? " (dry-run)" : "") + " ===");
@@ -164,12 +399,35 @@ public class Main implements Callable<Integer> {
             System.out.println();
 
             // Clean up and create reports directory
-            deleteDir(reportsDir.toFile());
-            Files.createDirectories(reportsDir);
+            cleanReportsDir(reportsDir);
 
             // Create configuration
             SortConfiguration config = new SortConfiguration(inputDir, outputDir);
             config.setDebugMode(dryRun);
+            config.setScanThreads(threads);
+            config.setTagReaderThreads(tagReaders);
+            config.setFastTagReading(!fullTagRead);
+            config.setPipelined(pipeline);
+            config.setCopyThreads(copyThreads);
+            config.setStreamsPerStore(streamsPerStore);
+            config.setStoreStreams(storeStreams);
+            config.setOrganizeMode(mode);
+            config.setSkipUnchanged(skipUnchanged);
+            config.setCompareContent(compareContent);
+            config.setJournalFile(journalFile);
+            config.setResume(resume);
+            config.setChecksumAlgorithm(checksum);
+            config.setVerifyChecksum(verify);
+            config.setBandwidthLimit(maxRate);
+            config.setArtistFolderPattern(artistPattern);
+            config.setAlbumFolderPattern(albumPattern);
+            config.setFileNamePolicy(namePolicy);
+            config.setCollisionPolicy(onCollision);
+            config.setReportCompression(jsonCompression);
+            config.setCompactJson(compactJson);
+            if (copyMethod == CopyMethod.CHANNEL) {
+                config.setCopyStrategy(new ChannelCopyStrategy(chunkSizeMb * 1024L * 1024L, preallocate));
+            }
 
             // Create engine and execute
             AudioSorterEngine engine = new AudioSorterEngine(config);
@@ -367,6 +625,8 @@ public class Main implements Callable<Integer> {
         }
     }
 
+    enum CopyMethod { FILES, CHANNEL }
+
     // Shared utility methods
 
     static void generateReports(RunTotals totals, SortConfiguration config, Path reportsDir) {
@@ -385,7 +645,8 @@ public class Main implements Callable<Integer> {
         // Generate JSON report
         try {
             JsonReportGenerator jsonGenerator = new JsonReportGenerator();
-            Path jsonReport = reportsDir.resolve("report.json");
+            Path jsonReport = reportsDir.resolve("report." + jsonGenerator.getFileExtension()
+                + config.getReportCompression().getSuffix());
             jsonGenerator.generate(totals, config, jsonReport);
             System.out.println("Generated JSON report: " + jsonReport.toAbsolutePath());
         } catch (IOException e) {
@@ -403,6 +664,26 @@ public class Main implements Callable<Integer> {
         }
     }
 
+    /**
+     * Empty the reports directory, keeping the cover thumbnails for the next catalog.
+     */
+    static void cleanReportsDir(Path reportsDir) throws IOException {
+        File[] files = reportsDir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().equals(HtmlReportGenerator.THUMBNAILS_DIRECTORY)) {
+                    continue;
+                }
+                if (file.isDirectory()) {
+                    deleteDir(file);
+                } else {
+                    file.delete();
+                }
+            }
+        }
+        Files.createDirectories(reportsDir);
+    }
+
     static void deleteDir(File dir) {
         if (dir.exists()) {
             File[] files = dir.listFiles();
@@ -6,9 +6,16 @@ import io.github.warnotte.audiosorter.model.DirectoryReport;
 import io.github.warnotte.audiosorter.model.FileReport;
 import io.github.warnotte.audiosorter.model.RunTotals;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * Main engine for sorting audio files based on metadata.
@@ -16,6 +23,11 @@ import java.util.List;
  *
  * For scan-only operations (catalog generation), use MusicScanner directly.
  * For sort-only operations (using existing scan data), use MusicSorter directly.
+ *
+ * In pipelined mode the copy stage runs on its own thread and each directory is
+ * copied as soon as the scanner completes it, through a bounded queue: a slow
+ * destination holds the scan back instead of filling the heap. Listeners are
+ * never called concurrently, whichever stage fires the event.
  */
 public class AudioSorterEngine {
 
@@ -23,6 +35,11 @@ public class AudioSorterEngine {
     private final MusicScanner scanner;
     private final MusicSorter sorter;
     private final List<SortProgressListener> listeners = new ArrayList<>();
+    // The same listeners as wrapped for the scanner and sorter, for events fired while they run
+    private final Map<SortProgressListener, SortProgressListener> serializedListeners = new LinkedHashMap<>();
+
+    // Marks the end of the scan in the pipeline queue
+    private static final DirectoryReport END_OF_SCAN = new DirectoryReport(Path.of(""), -1);
 
     public AudioSorterEngine(SortConfiguration config) {
         this.config = config;
@@ -34,12 +51,15 @@ public class AudioSorterEngine {
         listeners.add(listener);
 
         // Bridge scan events to sort listener
-        scanner.addListener(new ScanToSortListenerBridge(listener, config));
-        sorter.addListener(listener);
+        SortProgressListener serialized = new SerializedSortListener(listener);
+        serializedListeners.put(listener, serialized);
+        scanner.addListener(new ScanToSortListenerBridge(serialized, config));
+        sorter.addListener(serialized);
     }
 
     public void removeListener(SortProgressListener listener) {
         listeners.remove(listener);
+        serializedListeners.remove(listener);
     }
 
     /**
@@ -69,12 +89,29 @@ public class AudioSorterEngine {
             l.onSortStarted(config.getInputDirectory(), config.getOutputDirectory(), config.isDebugMode());
         }
 
-        // Phase 1: Scan
-        RunTotals results = scanner.scan();
+        SortJournal journal = config.isDebugMode() ? null : openJournal();
+        sorter.setJournal(journal);
 
-        // Phase 2: Copy (if not debug mode)
-        if (!config.isDebugMode()) {
-            sorter.sort(results);
+        RunTotals results;
+        try {
+            if (config.isPipelined() && !config.isDebugMode()) {
+                // Scan and copy at the same time
+                results = executePipelined();
+            } else {
+                // Phase 1: Scan
+                results = scan();
+
+                // Phase 2: Copy (if not debug mode)
+                if (!config.isDebugMode()) {
+                    sorter.sort(results);
+                }
+            }
+        } finally {
+            closeJournal(sorter.getJournal());
+            sorter.setJournal(null);
+        }
+        if (journal != null && !isCancelled() && !sorter.isErrorReported() && results.getFilesFailed() == 0) {
+            removeJournal(journal.getFile());
         }
 
         // Fire completion event
@@ -85,6 +122,179 @@ public class AudioSorterEngine {
         return results;
     }
 
+    /**
+     * Open the sort journal, or reopen it when resuming. A resumed run also
+     * reuses the tags cached by the interrupted run for unchanged directories.
+     * @return null without a journal or if it cannot be opened
+     */
+    private SortJournal openJournal() {
+        Path file = config.getJournalFile();
+        if (file == null) {
+            return null;
+        }
+
+        // A fresh run only collects the tags, for a later resume
+        Path cacheFile = scanCacheFile(file);
+        scanner.setScanCache(config.isResume() ? ScanCache.load(cacheFile) : ScanCache.empty(cacheFile));
+
+        try {
+            if (config.isResume()) {
+                SortJournal journal = SortJournal.resume(file, config.getInputDirectory(), config.getOutputDirectory());
+                for (SortProgressListener l : listeners) {
+                    l.onInfo("Resuming from " + file + ": " + journal.getCompletedFileCount() + " files already copied");
+                }
+                return journal;
+            }
+            return SortJournal.create(file, config.getInputDirectory(), config.getOutputDirectory());
+        } catch (IOException e) {
+            for (SortProgressListener l : listeners) {
+                l.onError("Failed to open sort journal, sorting without it: " + file, e);
+            }
+            return null;
+        }
+    }
+
+    private void closeJournal(SortJournal journal) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            for (SortProgressListener l : listeners) {
+                l.onError("Failed to close sort journal: " + journal.getFile(), e);
+            }
+        }
+    }
+
+    /**
+     * Remove the journal and scan cache of a sort that completed without
+     * errors: there is nothing left to resume.
+     */
+    private void removeJournal(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(scanCacheFile(file));
+        } catch (IOException e) {
+            for (SortProgressListener l : listeners) {
+                l.onWarning("Failed to remove sort journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static Path scanCacheFile(Path journalFile) {
+        return journalFile.resolveSibling(journalFile.getFileName() + ".cache.json");
+    }
+
+    /**
+     * Scan, then save the scan cache used by the journal so a resumed run
+     * does not read the tags of unchanged directories again.
+     */
+    private RunTotals scan() {
+        RunTotals results = scanner.scan();
+        ScanCache cache = scanner.getScanCache();
+        if (cache != null && config.getJournalFile() != null && !scanner.isCancelled()) {
+            try {
+                cache.save();
+            } catch (IOException e) {
+                for (SortProgressListener l : listeners) {
+                    l.onWarning("Failed to save scan cache: " + e.getMessage());
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Run the scan on the calling thread and the copy on a copier thread,
+     * connected by a bounded queue of completed directories.
+     */
+    private RunTotals executePipelined() {
+        if (!sorter.begin()) {
+            return scan();
+        }
+
+        BlockingQueue<DirectoryReport> queue = new ArrayBlockingQueue<>(config.getPipelineQueueSize());
+        CopyStage copyStage = new CopyStage(queue);
+        Thread copier = new Thread(copyStage, "audiosorter-copy");
+        copier.start();
+
+        RunTotals results;
+        scanner.setReportSink(report -> enqueue(queue, report), true);
+        try {
+            results = scan();
+        } finally {
+            scanner.setReportSink(null);
+            try {
+                queue.put(END_OF_SCAN);
+                copier.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                copier.interrupt();
+            }
+        }
+
+        results.setCopyStartTime(copyStage.startTime);
+        results.setCopyEndTime(copyStage.endTime);
+        sorter.complete(results);
+        return results;
+    }
+
+    private void enqueue(BlockingQueue<DirectoryReport> queue, DirectoryReport report) {
+        try {
+            // Blocks while the copier is behind
+            queue.put(report);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+        }
+    }
+
+    /**
+     * Copies directories taken from the pipeline queue until the end of the scan.
+     * After a cancellation the queue is still drained so the scanner never blocks.
+     */
+    private class CopyStage implements Runnable {
+        private final BlockingQueue<DirectoryReport> queue;
+        private volatile Instant startTime;
+        private volatile Instant endTime;
+
+        CopyStage(BlockingQueue<DirectoryReport> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                DirectoryReport report;
+                try {
+                    report = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (report == END_OF_SCAN) {
+                    return;
+                }
+                if (sorter.isCancelled()) {
+                    continue;
+                }
+
+                if (startTime == null) {
+                    startTime = Instant.now();
+                }
+                try {
+                    sorter.sortDirectory(report);
+                } catch (RuntimeException e) {
+                    for (SortProgressListener l : serializedListeners.values()) {
+                        l.onError("Failed to copy directory: " + report.getPath(), e);
+                    }
+                }
+                endTime = Instant.now();
+            }
+        }
+    }
+
     /**
      * Scan only - no file copying.
      * Use this for catalog generation or analysis.
@@ -108,6 +318,123 @@ public class AudioSorterEngine {
         return sorter;
     }
 
+    /**
+     * Forwards events to a listener one at a time, so a listener written for a
+     * single thread also works when the scan and copy stages overlap.
+     */
+    private static class SerializedSortListener implements SortProgressListener {
+        private final SortProgressListener delegate;
+
+        SerializedSortListener(SortProgressListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void onSortStarted(Path inputDir, Path outputDir, boolean debugMode) {
+            delegate.onSortStarted(inputDir, outputDir, debugMode);
+        }
+
+        @Override
+        public synchronized void onSortPlanned(int files, long totalBytes) {
+            delegate.onSortPlanned(files, totalBytes);
+        }
+
+        @Override
+        public synchronized void onDirectoryEntered(Path directory, int depth) {
+            delegate.onDirectoryEntered(directory, depth);
+        }
+
+        @Override
+        public synchronized void onFilesFound(Path directory, int count) {
+            delegate.onFilesFound(directory, count);
+        }
+
+        @Override
+        public synchronized void onDirectoryEmpty(Path directory) {
+            delegate.onDirectoryEmpty(directory);
+        }
+
+        @Override
+        public synchronized void onTagsRead(Path directory, String artist, String album, String year) {
+            delegate.onTagsRead(directory, artist, album, year);
+        }
+
+        @Override
+        public synchronized void onTagsMissing(Path directory) {
+            delegate.onTagsMissing(directory);
+        }
+
+        @Override
+        public synchronized void onStringFiltered(String original, String filtered, Path directory) {
+            delegate.onStringFiltered(original, filtered, directory);
+        }
+
+        @Override
+        public synchronized void onFileCopyStarted(Path source, Path destination) {
+            delegate.onFileCopyStarted(source, destination);
+        }
+
+        @Override
+        public synchronized void onFileCopyProgress(Path source, long bytesCopied, long totalBytes) {
+            delegate.onFileCopyProgress(source, bytesCopied, totalBytes);
+        }
+
+        @Override
+        public synchronized void onFileCopied(FileReport fileReport) {
+            delegate.onFileCopied(fileReport);
+        }
+
+        @Override
+        public synchronized void onFileSkipped(FileReport fileReport) {
+            delegate.onFileSkipped(fileReport);
+        }
+
+        @Override
+        public synchronized void onFileCopyFailed(FileReport fileReport) {
+            delegate.onFileCopyFailed(fileReport);
+        }
+
+        @Override
+        public synchronized void onCopyThroughput(long bytesCopied, double megabytesPerSecond) {
+            delegate.onCopyThroughput(bytesCopied, megabytesPerSecond);
+        }
+
+        @Override
+        public synchronized void onCopyRate(double actualMegabytesPerSecond, double targetMegabytesPerSecond) {
+            delegate.onCopyRate(actualMegabytesPerSecond, targetMegabytesPerSecond);
+        }
+
+        @Override
+        public synchronized void onDirectoryCompleted(DirectoryReport report) {
+            delegate.onDirectoryCompleted(report);
+        }
+
+        @Override
+        public synchronized void onProgressUpdate(int processedDirs, int totalDirs, int processedFiles) {
+            delegate.onProgressUpdate(processedDirs, totalDirs, processedFiles);
+        }
+
+        @Override
+        public synchronized void onSortCompleted(RunTotals totals) {
+            delegate.onSortCompleted(totals);
+        }
+
+        @Override
+        public synchronized void onError(String message, Exception exception) {
+            delegate.onError(message, exception);
+        }
+
+        @Override
+        public synchronized void onInfo(String message) {
+            delegate.onInfo(message);
+        }
+
+        @Override
+        public synchronized void onWarning(String message) {
+            delegate.onWarning(message);
+        }
+    }
+
     /**
      * Bridge class to adapt ScanProgressListener events to SortProgressListener.
      */
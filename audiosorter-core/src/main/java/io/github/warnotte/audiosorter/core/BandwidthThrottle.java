@@ -0,0 +1,110 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by all copy threads, limiting the copy rate to a
+ * ceiling in MB/s that can be changed while copies are running.
+ *
+ * Copies take tokens for each chunk they transfer. The bucket holds at most
+ * one second of tokens; a chunk larger than what is left puts the bucket in
+ * debt and its thread sleeps until the debt is paid back, so the average rate
+ * stays at the ceiling whatever the chunk size. The rate actually achieved
+ * over the last second is measured for progress reporting.
+ */
+public class BandwidthThrottle {
+
+    private static final double MB = 1024.0 * 1024.0;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private double bytesPerSecond;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+
+    private long windowStart = System.nanoTime();
+    private long windowBytes;
+    private double recentBytesPerSecond;
+
+    /**
+     * @param megabytesPerSecond the ceiling, 0 for no limit
+     */
+    public BandwidthThrottle(double megabytesPerSecond) {
+        setLimit(megabytesPerSecond);
+    }
+
+    /**
+     * Change the ceiling; takes effect for the next chunk of every copy.
+     * @param megabytesPerSecond the ceiling, 0 for no limit
+     */
+    public synchronized void setLimit(double megabytesPerSecond) {
+        if (megabytesPerSecond < 0 || Double.isNaN(megabytesPerSecond)) {
+            throw new IllegalArgumentException("Bandwidth limit must be positive or 0: " + megabytesPerSecond);
+        }
+        refill();
+        bytesPerSecond = megabytesPerSecond * MB;
+        // Do not carry a burst saved up under a higher limit
+        tokens = Math.min(tokens, bytesPerSecond);
+    }
+
+    public synchronized double getLimit() {
+        return bytesPerSecond / MB;
+    }
+
+    public synchronized boolean isLimited() {
+        return bytesPerSecond > 0;
+    }
+
+    /**
+     * Take tokens for bytes just transferred, sleeping while the bucket is in debt.
+     * An interrupt ends the wait early and is left set on the thread.
+     */
+    public void acquire(long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            record(bytes);
+            if (bytesPerSecond <= 0) {
+                return;
+            }
+            refill();
+            tokens -= bytes;
+            waitNanos = tokens < 0 ? (long) (-tokens / bytesPerSecond * 1e9) : 0;
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Rate achieved over the last complete one-second window, in MB/s.
+     */
+    public synchronized double getRecentRate() {
+        record(0);
+        return recentBytesPerSecond / MB;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (bytesPerSecond > 0) {
+            tokens = Math.min(bytesPerSecond, tokens + (now - lastRefill) / 1e9 * bytesPerSecond);
+        }
+        lastRefill = now;
+    }
+
+    private void record(long bytes) {
+        long now = System.nanoTime();
+        long elapsed = now - windowStart;
+        if (elapsed >= WINDOW_NANOS) {
+            recentBytesPerSecond = windowBytes / (elapsed / 1e9);
+            windowStart = now;
+            windowBytes = 0;
+        }
+        windowBytes += bytes;
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Copies with FileChannel.transferTo in fixed-size chunks, letting the OS move
+ * the data without a user-space buffer where it can (sendfile/copy_file_range).
+ * Progress is reported after each chunk, so large images give byte-level progress.
+ *
+ * With preallocation the destination is sized to the source length before
+ * copying. Whether that reserves disk blocks depends on the filesystem
+ * (NTFS allocates them, most Linux filesystems create a sparse file).
+ *
+ * The copy is written next to the destination and renamed over it when
+ * complete; a destination that already is the source is left as it is.
+ */
+public class ChannelCopyStrategy implements CopyStrategy {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final long chunkSize;
+    private final boolean preallocate;
+
+    public ChannelCopyStrategy() {
+        this(DEFAULT_CHUNK_SIZE, false);
+    }
+
+    public ChannelCopyStrategy(long chunkSize, boolean preallocate) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.preallocate = preallocate;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public boolean isPreallocate() {
+        return preallocate;
+    }
+
+    @Override
+    public void copy(Path source, Path dest, Progress progress) throws IOException {
+        if (FileReplacement.isSource(source, dest)) {
+            long size = Files.size(dest);
+            progress.update(size, size);
+            return;
+        }
+        FileReplacement.replace(dest, temporary -> copyTo(source, temporary, progress));
+    }
+
+    private void copyTo(Path source, Path dest, Progress progress) throws IOException {
+        try (FileChannel in = FileChannel.open(source, READ);
+             FileChannel out = FileChannel.open(dest, CREATE_NEW, WRITE)) {
+            long size = in.size();
+            if (preallocate && size > 0) {
+                // Extend the file by writing its last byte position
+                out.write(ByteBuffer.allocate(1), size - 1);
+            }
+
+            long position = 0;
+            while (position < size) {
+                long transferred = in.transferTo(position, Math.min(chunkSize, size - position), out);
+                if (transferred <= 0) {
+                    // Source got shorter while copying
+                    break;
+                }
+                position += transferred;
+                progress.update(position, size);
+            }
+
+            if (out.size() > position) {
+                out.truncate(position);
+            }
+            if (size == 0) {
+                progress.update(0, 0);
+            }
+        }
+    }
+}
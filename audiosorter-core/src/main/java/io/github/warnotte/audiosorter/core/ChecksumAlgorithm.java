@@ -0,0 +1,31 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32C;
+
+/**
+ * Checksums MusicSorter can compute while copying.
+ * CRC32C and xxHash64 are fast error-detection codes; SHA-256 is slower but
+ * suitable for integrity manifests that must resist tampering.
+ */
+public enum ChecksumAlgorithm {
+    CRC32C,
+    XXHASH64,
+    SHA256;
+
+    public StreamDigest newDigest() {
+        return switch (this) {
+            case CRC32C -> StreamDigest.of(new CRC32C(), 8);
+            case XXHASH64 -> StreamDigest.of(new XxHash64(), 16);
+            case SHA256 -> {
+                try {
+                    yield StreamDigest.of(MessageDigest.getInstance("SHA-256"));
+                } catch (NoSuchAlgorithmException e) {
+                    // Every Java platform is required to provide SHA-256
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.warnotte.audiosorter.core;
+
+/**
+ * What to do when a file would be copied to a destination already planned
+ * for another source file in the same run. Directories that share a folder
+ * without sharing a file name (discs of one album) are merged whatever the policy.
+ */
+public enum CollisionPolicy {
+    /** Copy the colliding directory to a numbered folder: "Album (2)", "Album (3)"... */
+    RENAME,
+    /** Do not copy the colliding files; they are reported as failed. */
+    SKIP,
+    /** Copy anyway; the last file copied wins, as in earlier versions. */
+    OVERWRITE,
+    /** Stop the sort before copying anything (pipelined runs stop at the first collision). */
+    FAIL
+}
@@ -0,0 +1,167 @@
+package io.github.warnotte.audiosorter.core;
+
+import io.github.warnotte.audiosorter.model.FileReport;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs file copies on a thread pool, with a limit on the number of copies
+ * reading from or writing to the same FileStore at once.
+ *
+ * A store's limit comes from the configured overrides (by FileStore name),
+ * then defaults to 1 for rotational disks (detected on Linux) and to the
+ * default stream count otherwise, so SSDs get parallel streams while a
+ * single HDD is not made to seek between files.
+ */
+final class CopyExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final int defaultStreams;
+    private final Map<String, Integer> storeStreams;
+    private final Map<FileStore, Semaphore> permits = new ConcurrentHashMap<>();
+
+    CopyExecutor(int threads, int defaultStreams, Map<String, Integer> storeStreams) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "audiosorter-copy-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.defaultStreams = defaultStreams;
+        this.storeStreams = storeStreams;
+    }
+
+    /**
+     * Copy the files of one directory in parallel and wait for all of them.
+     * @param copy copies a single file and updates its report
+     */
+    void copyAll(List<FileReport> files, Path sourceDir, Path destDir, Consumer<FileReport> copy) {
+        Semaphore[] limits = limitsFor(sourceDir, destDir);
+
+        List<Future<?>> futures = new ArrayList<>(files.size());
+        for (FileReport file : files) {
+            futures.add(executor.submit(() -> {
+                acquire(limits);
+                try {
+                    copy.accept(file);
+                } finally {
+                    release(limits);
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // The copy callback records its own failures
+            }
+        }
+    }
+
+    /**
+     * Semaphores of the source and destination stores, in a fixed order so two
+     * directories copied in opposite directions cannot deadlock.
+     */
+    private Semaphore[] limitsFor(Path sourceDir, Path destDir) {
+        FileStore source = storeOf(sourceDir);
+        FileStore dest = storeOf(destDir);
+        if (source == null && dest == null) {
+            return new Semaphore[0];
+        }
+        if (source == null || dest == null || source.equals(dest)) {
+            FileStore store = source != null ? source : dest;
+            return new Semaphore[] {permitsFor(store, source != null ? sourceDir : destDir)};
+        }
+        Semaphore first = permitsFor(source, sourceDir);
+        Semaphore second = permitsFor(dest, destDir);
+        if (source.toString().compareTo(dest.toString()) > 0) {
+            return new Semaphore[] {second, first};
+        }
+        return new Semaphore[] {first, second};
+    }
+
+    private Semaphore permitsFor(FileStore store, Path path) {
+        return permits.computeIfAbsent(store, s -> new Semaphore(streamsFor(s, path)));
+    }
+
+    private int streamsFor(FileStore store, Path path) {
+        Integer configured = storeStreams.get(store.name());
+        if (configured != null) {
+            return Math.max(1, configured);
+        }
+        return isRotational(path) ? 1 : defaultStreams;
+    }
+
+    private static FileStore storeOf(Path path) {
+        try {
+            return Files.getFileStore(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check /sys/dev/block for the device holding the path (Linux only).
+     * Partitions have no queue of their own, so the parent disk is checked too.
+     */
+    private static boolean isRotational(Path path) {
+        try {
+            long dev = ((Number) Files.getAttribute(path, "unix:dev")).longValue();
+            long major = ((dev >>> 8) & 0xFFF) | ((dev >>> 32) & ~0xFFFL);
+            long minor = (dev & 0xFF) | ((dev >>> 12) & ~0xFFL);
+            Path device = Path.of("/sys/dev/block", major + ":" + minor).toRealPath();
+            for (Path dir : List.of(device, device.getParent())) {
+                Path rotational = dir.resolve("queue/rotational");
+                if (Files.isReadable(rotational)) {
+                    return Files.readString(rotational).trim().equals("1");
+                }
+            }
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException | ClassCastException e) {
+            // Unknown device type
+        }
+        return false;
+    }
+
+    private static void acquire(Semaphore[] limits) throws InterruptedException {
+        for (int i = 0; i < limits.length; i++) {
+            try {
+                limits[i].acquire();
+            } catch (InterruptedException e) {
+                for (int j = 0; j < i; j++) {
+                    limits[j].release();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static void release(Semaphore[] limits) {
+        for (Semaphore limit : limits) {
+            limit.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
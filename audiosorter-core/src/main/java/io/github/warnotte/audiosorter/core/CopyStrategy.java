@@ -0,0 +1,42 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * How MusicSorter copies a single file.
+ * Implementations replace an existing destination file.
+ *
+ * @see FilesCopyStrategy
+ * @see ChannelCopyStrategy
+ */
+public interface CopyStrategy {
+
+    /**
+     * Receives byte-level progress while a file is copied.
+     */
+    @FunctionalInterface
+    interface Progress {
+        void update(long bytesCopied, long totalBytes);
+    }
+
+    /**
+     * Copy source to dest, replacing dest if it exists.
+     * @param progress called as the copy advances, at least once when it completes
+     */
+    void copy(Path source, Path dest, Progress progress) throws IOException;
+
+    /**
+     * Copy source to dest and feed every byte copied to the digest.
+     * The bytes must pass through user space to be digested, so by default
+     * this streams through a buffer instead of the strategy's own copy.
+     * @param digest null to copy without a checksum
+     */
+    default void copy(Path source, Path dest, Progress progress, StreamDigest digest) throws IOException {
+        if (digest == null) {
+            copy(source, dest, progress);
+        } else {
+            DigestingCopy.copy(source, dest, progress, digest);
+        }
+    }
+}
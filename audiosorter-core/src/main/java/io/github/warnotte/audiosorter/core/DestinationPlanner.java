@@ -0,0 +1,285 @@
+package io.github.warnotte.audiosorter.core;
+
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Computes the destination of every file before it is copied, and resolves
+ * collisions between source files that would land on the same destination.
+ *
+ * Planned destinations are kept in a hash index keyed by path, case-folded
+ * when the file name policy targets a case-insensitive filesystem, so a
+ * collision costs one lookup per file. A whole run can be planned up front
+ * ({@link #planAll}), which also creates all destination folders before the
+ * first copy; pipelined runs plan each directory as it arrives.
+ *
+ * The files of a directory are those recorded by the scan, so planning
+ * reads nothing from the source.
+ *
+ * When a sort is resumed, the destinations planned by the interrupted run
+ * are reserved first ({@link #reserve}) and each directory it planned keeps
+ * its folder, so a collision renamed differently this time cannot copy a
+ * directory twice or skip it.
+ *
+ * Not thread-safe: a run is planned from the thread feeding MusicSorter.
+ */
+final class DestinationPlanner {
+
+    private static final int MAX_RENAME_ATTEMPTS = 1000;
+
+    private final Path outputDirectory;
+    // Every destination must stay under it
+    private final Path outputRoot;
+    private final FolderPattern artistPattern;
+    private final FolderPattern albumPattern;
+    private final FileNameSanitizer sanitizer;
+    private final CollisionPolicy policy;
+
+    // Destination key -> source file planned there
+    private final Map<String, Path> plannedFiles = new HashMap<>();
+    private final Map<DirectoryReport, Plan> plans = new IdentityHashMap<>();
+    // Source directory -> destination folder planned by the run being resumed
+    private final Map<Path, Path> resumedDestinations = new HashMap<>();
+    private final List<String> collisions = new ArrayList<>();
+
+    DestinationPlanner(Path outputDirectory, FolderPattern artistPattern, FolderPattern albumPattern,
+                       FileNameSanitizer sanitizer, CollisionPolicy policy) {
+        this.outputDirectory = outputDirectory;
+        this.outputRoot = outputDirectory.toAbsolutePath().normalize();
+        this.artistPattern = artistPattern;
+        this.albumPattern = albumPattern;
+        this.sanitizer = sanitizer;
+        this.policy = policy;
+    }
+
+    /**
+     * Destination of the files of one directory.
+     */
+    static final class Plan {
+        final Path destination;
+        // Files not to copy under the SKIP policy, indexed like the report's source files (null when none)
+        final boolean[] skipped;
+        // Why none of the files can be copied (null when they can)
+        final String failure;
+        // Set when the destination folder was created up front and failed
+        IOException createError;
+        boolean created;
+
+        private Plan(Path destination, boolean[] skipped) {
+            this(destination, skipped, null);
+        }
+
+        private Plan(Path destination, boolean[] skipped, String failure) {
+            this.destination = destination;
+            this.skipped = skipped;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Plan every directory of a scan, in source path order so the plan does
+     * not depend on scan thread timing, then create the destination folders.
+     * @throws CollisionException under the FAIL policy, before anything is created
+     */
+    void planAll(List<DirectoryReport> reports) throws CollisionException {
+        List<DirectoryReport> ordered = new ArrayList<>(reports);
+        ordered.sort(Comparator.comparing(DirectoryReport::getPath));
+        for (DirectoryReport report : ordered) {
+            if (isSorted(report)) {
+                plans.put(report, plan(report));
+            }
+        }
+        if (policy == CollisionPolicy.FAIL && !collisions.isEmpty()) {
+            throw new CollisionException(collisions);
+        }
+
+        // One createDirectories per distinct folder, all before the first copy
+        Map<Path, List<Plan>> folders = new HashMap<>();
+        for (Plan plan : plans.values()) {
+            if (plan.failure != null) {
+                continue;
+            }
+            folders.computeIfAbsent(plan.destination, d -> new ArrayList<>()).add(plan);
+        }
+        for (Path folder : folders.keySet()) {
+            IOException error = null;
+            try {
+                Files.createDirectories(folder);
+            } catch (IOException e) {
+                error = e;
+            }
+            for (Plan plan : folders.get(folder)) {
+                plan.created = error == null;
+                plan.createError = error;
+            }
+        }
+    }
+
+    /**
+     * Plan of a directory: the one computed by {@link #planAll}, otherwise planned now.
+     * @throws CollisionException under the FAIL policy
+     */
+    Plan get(DirectoryReport report) throws CollisionException {
+        Plan plan = plans.remove(report);
+        if (plan != null) {
+            return plan;
+        }
+        int known = collisions.size();
+        plan = plan(report);
+        if (policy == CollisionPolicy.FAIL && collisions.size() > known) {
+            throw new CollisionException(collisions.subList(known, collisions.size()));
+        }
+        return plan;
+    }
+
+    /**
+     * Keep the destination the run being resumed planned for a source file.
+     * Call for every planned file before planning any directory.
+     */
+    void reserve(Path source, Path destination) {
+        plannedFiles.putIfAbsent(key(destination), source);
+        resumedDestinations.putIfAbsent(source.getParent(), destination.getParent());
+    }
+
+    /**
+     * Collisions found so far, one message each.
+     */
+    List<String> getCollisions() {
+        return collisions;
+    }
+
+    static boolean isSorted(DirectoryReport report) {
+        return !report.isEmpty() && report.getScannedFilesCount() > 0;
+    }
+
+    private Plan plan(DirectoryReport report) {
+        if (report.getSourceFileCount() == 0) {
+            // Not listed by a scan of this run (e.g. a report built elsewhere)
+            listSourceFiles(report);
+        }
+        int count = report.getSourceFileCount();
+
+        Path destination = resumedDestinations.get(report.getPath());
+        boolean resumed = destination != null;
+        if (!resumed) {
+            // Shortened if needed so every file fits the path limit
+            Path artistDir = sanitizer.resolve(outputDirectory, artistPattern.render(report, sanitizer::clean));
+            Path albumDir = sanitizer.resolve(artistDir, albumPattern.render(report, sanitizer::clean));
+            int longestFileName = 0;
+            for (int i = 0; i < count; i++) {
+                longestFileName = Math.max(longestFileName, sanitizer.length(report.getSourceFileName(i)));
+            }
+            destination = sanitizer.fit(albumDir, longestFileName);
+        }
+        if (!destination.toAbsolutePath().normalize().startsWith(outputRoot)) {
+            return new Plan(destination, null, "Destination " + destination + " is outside the output directory");
+        }
+
+        Path other = firstCollision(destination, report);
+        boolean[] skipped = null;
+        if (other != null) {
+            String message = report.getPath() + " and " + other.getParent() + " both map to " + destination;
+            // A folder already used by the resumed run is not renamed; only its new files can collide
+            CollisionPolicy handling = resumed && policy == CollisionPolicy.RENAME ? CollisionPolicy.SKIP : policy;
+            switch (handling) {
+                case RENAME -> {
+                    Path renamed = rename(destination, report);
+                    if (renamed == null) {
+                        collisions.add(message + "; no free name, files are not copied");
+                        return new Plan(destination, null, "No free name for " + destination);
+                    }
+                    collisions.add(message + "; copying to " + renamed.getFileName());
+                    destination = renamed;
+                }
+                case SKIP -> {
+                    skipped = new boolean[count];
+                    for (int i = 0; i < count; i++) {
+                        String name = report.getSourceFileName(i);
+                        skipped[i] = isTaken(destination.resolve(name), report.getPath().resolve(name));
+                    }
+                    collisions.add(message + "; files with the same name are not copied");
+                }
+                case OVERWRITE -> collisions.add(message + "; files with the same name are overwritten");
+                case FAIL -> collisions.add(message);
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (skipped == null || !skipped[i]) {
+                String name = report.getSourceFileName(i);
+                plannedFiles.putIfAbsent(key(destination.resolve(name)), report.getPath().resolve(name));
+            }
+        }
+        return new Plan(destination, skipped);
+    }
+
+    private static void listSourceFiles(DirectoryReport report) {
+        try {
+            DirectoryListing.read(report.getPath(), name -> true, name -> false).recordSourceFiles(report);
+        } catch (IOException e) {
+            // Nothing to copy, as when the directory could not be listed by the scan
+        }
+    }
+
+    /**
+     * @return the other source already planned at the destination of one of these files, or null
+     */
+    private Path firstCollision(Path destination, DirectoryReport report) {
+        for (int i = 0; i < report.getSourceFileCount(); i++) {
+            String name = report.getSourceFileName(i);
+            Path source = report.getPath().resolve(name);
+            if (isTaken(destination.resolve(name), source)) {
+                return plannedFiles.get(key(destination.resolve(name)));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether another source file is planned at this destination.
+     */
+    private boolean isTaken(Path destination, Path source) {
+        Path planned = plannedFiles.get(key(destination));
+        return planned != null && !planned.equals(source);
+    }
+
+    /**
+     * First numbered variant of a folder where no file collides.
+     * @return null if every variant up to the attempt limit collides
+     */
+    private Path rename(Path destination, DirectoryReport report) {
+        Path parent = destination.getParent();
+        String name = destination.getFileName().toString();
+        for (int n = 2; n < MAX_RENAME_ATTEMPTS; n++) {
+            Path candidate = parent.resolve(sanitizer.name(name + " (" + n + ")"));
+            if (firstCollision(candidate, report) == null) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private String key(Path path) {
+        String key = path.toString();
+        return sanitizer.getPolicy().isCaseInsensitive() ? key.toLowerCase(Locale.ROOT) : key;
+    }
+
+    /**
+     * Thrown under the FAIL policy when destinations collide.
+     */
+    static final class CollisionException extends Exception {
+        CollisionException(List<String> collisions) {
+            super(collisions.size() + " destination collision(s), first: " + collisions.get(0));
+        }
+    }
+}
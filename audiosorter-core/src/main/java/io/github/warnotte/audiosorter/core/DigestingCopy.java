@@ -0,0 +1,85 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Buffered copy that digests each block between the read and the write,
+ * so the checksum costs no extra read of the source.
+ */
+final class DigestingCopy {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    // One direct buffer per copy thread
+    private static final ThreadLocal<ByteBuffer> BUFFERS =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private DigestingCopy() {
+    }
+
+    /**
+     * Copy through a temporary file renamed over dest (see {@link FileReplacement}).
+     * A destination that already is the source is only digested.
+     */
+    static void copy(Path source, Path dest, CopyStrategy.Progress progress, StreamDigest digest) throws IOException {
+        if (FileReplacement.isSource(source, dest)) {
+            try (FileChannel in = FileChannel.open(source, READ)) {
+                transfer(in, null, progress, digest);
+            }
+            return;
+        }
+        FileReplacement.replace(dest, temporary -> {
+            try (FileChannel in = FileChannel.open(source, READ);
+                 FileChannel out = FileChannel.open(temporary, CREATE_NEW, WRITE)) {
+                transfer(in, out, progress, digest);
+            }
+        });
+    }
+
+    /**
+     * @param out null to only digest
+     */
+    private static void transfer(FileChannel in, FileChannel out, CopyStrategy.Progress progress, StreamDigest digest) throws IOException {
+        ByteBuffer buffer = BUFFERS.get();
+        long size = in.size();
+        long copied = 0;
+        buffer.clear();
+        while (in.read(buffer) > 0) {
+            buffer.flip();
+            digest.update(buffer);
+            copied += buffer.remaining();
+            while (out != null && buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+            progress.update(copied, size);
+        }
+        if (copied == 0) {
+            progress.update(0, 0);
+        }
+    }
+
+    /**
+     * Digest a file without copying it.
+     */
+    static StreamDigest digest(Path file, ChecksumAlgorithm algorithm) throws IOException {
+        StreamDigest digest = algorithm.newDigest();
+        ByteBuffer buffer = BUFFERS.get();
+        try (FileChannel in = FileChannel.open(file, READ)) {
+            buffer.clear();
+            while (in.read(buffer) > 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest;
+    }
+}
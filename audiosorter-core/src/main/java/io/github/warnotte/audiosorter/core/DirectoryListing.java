@@ -0,0 +1,121 @@
+package io.github.warnotte.audiosorter.core;
+
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Contents of a single directory, read in one pass.
+ * Each entry is classified as a subdirectory, audio file, image file or other file,
+ * and its size and modification time are captured from the same attribute read.
+ * The directory's own modification time is kept for the scan cache.
+ */
+final class DirectoryListing {
+
+    /**
+     * A regular file with the attributes captured during listing.
+     */
+    static final class Entry {
+        final Path path;
+        final long size;
+        final long lastModified;
+
+        Entry(Path path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    long lastModified;
+    final List<Path> subdirectories = new ArrayList<>();
+    final List<Entry> audioFiles = new ArrayList<>();
+    final List<Entry> imageFiles = new ArrayList<>();
+    final List<Entry> otherFiles = new ArrayList<>();
+
+    private DirectoryListing() {
+    }
+
+    static DirectoryListing empty() {
+        return new DirectoryListing();
+    }
+
+    /**
+     * List a directory with a single directory stream.
+     * Entries whose attributes cannot be read (e.g. broken links) are skipped.
+     */
+    static DirectoryListing read(Path directory, Predicate<String> isAudio, Predicate<String> isImage)
+            throws IOException {
+        DirectoryListing listing = new DirectoryListing();
+        listing.lastModified = Files.getLastModifiedTime(directory).toMillis();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path entry : stream) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue;
+                }
+
+                if (attrs.isDirectory()) {
+                    listing.subdirectories.add(entry);
+                    continue;
+                }
+                if (!attrs.isRegularFile()) {
+                    continue;
+                }
+
+                Entry file = new Entry(entry, attrs.size(), attrs.lastModifiedTime().toMillis());
+                String name = entry.getFileName().toString();
+                if (isAudio.test(name)) {
+                    listing.audioFiles.add(file);
+                } else if (isImage.test(name)) {
+                    listing.imageFiles.add(file);
+                } else {
+                    listing.otherFiles.add(file);
+                }
+            }
+        }
+        return listing;
+    }
+
+    int getFileCount() {
+        return audioFiles.size() + imageFiles.size() + otherFiles.size();
+    }
+
+    /**
+     * Record every regular file with its attributes in the report, audio
+     * files first, so the sort copies them without listing or stating again.
+     */
+    void recordSourceFiles(DirectoryReport report) {
+        int count = getFileCount();
+        String[] names = new String[count];
+        long[] sizes = new long[count];
+        long[] modified = new long[count];
+        int i = 0;
+        for (List<Entry> entries : List.of(audioFiles, imageFiles, otherFiles)) {
+            for (Entry entry : entries) {
+                names[i] = entry.path.getFileName().toString();
+                sizes[i] = entry.size;
+                modified[i] = entry.lastModified;
+                i++;
+            }
+        }
+        report.setSourceFiles(names, sizes, modified);
+    }
+
+    long getAudioBytes() {
+        long total = 0;
+        for (Entry entry : audioFiles) {
+            total += entry.size;
+        }
+        return total;
+    }
+}
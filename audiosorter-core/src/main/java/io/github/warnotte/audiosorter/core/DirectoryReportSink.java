@@ -0,0 +1,22 @@
+package io.github.warnotte.audiosorter.core;
+
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import java.io.IOException;
+
+/**
+ * Receives directory reports as a streaming scan completes them.
+ * The scanner drops each report once it has been accepted, so a sink
+ * must copy whatever it needs (write it out, sort the directory, ...).
+ *
+ * Calls are serialized by the scanner, even during parallel scans.
+ */
+@FunctionalInterface
+public interface DirectoryReportSink {
+
+    /**
+     * Called once per directory, after its tags have been read.
+     * @throws IOException if the report cannot be handled; the scan reports the error and continues
+     */
+    void accept(DirectoryReport report) throws IOException;
+}
@@ -0,0 +1,72 @@
+package io.github.warnotte.audiosorter.core;
+
+/**
+ * Rules for the folder names MusicSorter creates, per target system.
+ * Control characters are replaced whatever the target.
+ */
+public enum FileNamePolicy {
+    /** Valid everywhere: Windows rules, plus '%' and apostrophes replaced as in earlier versions. */
+    PORTABLE("/\\?%*:|\"<>", true, true, true, 255, false, 260),
+    /** NTFS and FAT: reserved characters and device names, no trailing dots or spaces, 260-character paths. */
+    WINDOWS("/\\?*:|\"<>", false, true, true, 255, false, 260),
+    /** APFS and HFS+: '/' and ':' (shown as '/' by the Finder). */
+    MACOS("/:", false, false, true, 255, false, 1024),
+    /** ext4, btrfs, XFS: only '/'; names limited to 255 bytes of UTF-8. */
+    LINUX("/", false, false, false, 255, true, 4096);
+
+    private final String invalidCharacters;
+    private final boolean replaceApostrophe;
+    private final boolean windowsRules;
+    private final boolean caseInsensitive;
+    private final int maxNameLength;
+    private final boolean lengthInBytes;
+    private final int maxPathLength;
+
+    FileNamePolicy(String invalidCharacters, boolean replaceApostrophe, boolean windowsRules, boolean caseInsensitive,
+                   int maxNameLength, boolean lengthInBytes, int maxPathLength) {
+        this.invalidCharacters = invalidCharacters;
+        this.replaceApostrophe = replaceApostrophe;
+        this.windowsRules = windowsRules;
+        this.caseInsensitive = caseInsensitive;
+        this.maxNameLength = maxNameLength;
+        this.lengthInBytes = lengthInBytes;
+        this.maxPathLength = maxPathLength;
+    }
+
+    String getInvalidCharacters() {
+        return invalidCharacters;
+    }
+
+    boolean isReplaceApostrophe() {
+        return replaceApostrophe;
+    }
+
+    /**
+     * Device names (CON, NUL, COM1...) are reserved and names cannot end with a dot or a space.
+     */
+    boolean isWindowsRules() {
+        return windowsRules;
+    }
+
+    /**
+     * Whether names differing only in case are the same file (NTFS, APFS by default).
+     */
+    boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    int getMaxNameLength() {
+        return maxNameLength;
+    }
+
+    /**
+     * Whether name and path lengths count UTF-8 bytes rather than UTF-16 chars.
+     */
+    boolean isLengthInBytes() {
+        return lengthInBytes;
+    }
+
+    int getMaxPathLength() {
+        return maxPathLength;
+    }
+}
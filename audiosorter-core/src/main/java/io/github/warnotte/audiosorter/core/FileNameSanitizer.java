@@ -0,0 +1,219 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Makes tag values and folder names valid for a {@link FileNamePolicy}.
+ *
+ * Tag values are cleaned in a single pass over a replacement table built
+ * from the policy, and the results are memoized: the same artist, year and
+ * album come back for every directory of an album and every album of an
+ * artist. Folder names then get the per-name rules (Windows device names,
+ * trailing dots, length limit) and whole paths the path length limit.
+ */
+final class FileNameSanitizer {
+
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final int TABLE_SIZE = 128;
+    private static final int CACHE_SIZE = 4096;
+    // Shortest folder name left when shortening a path to fit the limit
+    private static final int MIN_FITTED_NAME_LENGTH = 16;
+
+    private static final Set<String> WINDOWS_DEVICE_NAMES = Set.of(
+        "CON", "PRN", "AUX", "NUL",
+        "COM1", "COM2", "COM3", "COM4", "COM5", "COM6", "COM7", "COM8", "COM9",
+        "LPT1", "LPT2", "LPT3", "LPT4", "LPT5", "LPT6", "LPT7", "LPT8", "LPT9");
+
+    private final FileNamePolicy policy;
+    // Replacement of each ASCII character; non-ASCII characters are kept
+    private final char[] table = new char[TABLE_SIZE];
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    FileNameSanitizer(FileNamePolicy policy) {
+        this.policy = policy;
+        for (char c = 0; c < TABLE_SIZE; c++) {
+            table[c] = c < ' ' || c == 127 ? '_' : c;
+        }
+        for (char c : policy.getInvalidCharacters().toCharArray()) {
+            table[c] = '_';
+        }
+        if (policy.isReplaceApostrophe()) {
+            table['\''] = ' ';
+        }
+    }
+
+    FileNamePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Replace the characters the policy does not allow in a tag value and trim it.
+     * Trailing dots are removed too under the Windows rules.
+     * @return "UNKNOWN" for a null value
+     */
+    String clean(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        String cleaned = cache.get(value);
+        if (cleaned == null) {
+            cleaned = cleanUncached(value);
+            if (cache.size() >= CACHE_SIZE) {
+                // Artists and years repeat within a library; albums mostly do not
+                cache.clear();
+            }
+            cache.put(value, cleaned);
+        }
+        return cleaned;
+    }
+
+    private String cleanUncached(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && isTrimmed(value.charAt(start), false)) {
+            start++;
+        }
+        while (end > start && isTrimmed(value.charAt(end - 1), policy.isWindowsRules())) {
+            end--;
+        }
+
+        char[] out = null;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            char replacement = c < TABLE_SIZE ? table[c] : c;
+            if (out == null && replacement != c) {
+                out = new char[end - start];
+                value.getChars(start, i, out, 0);
+            }
+            if (out != null) {
+                out[i - start] = replacement;
+            }
+        }
+        return out != null ? new String(out) : value.substring(start, end);
+    }
+
+    private boolean isTrimmed(char c, boolean dots) {
+        if (c <= ' ') {
+            return true;
+        }
+        char replacement = c < TABLE_SIZE ? table[c] : c;
+        return replacement == ' ' || (dots && replacement == '.');
+    }
+
+    /**
+     * Resolve a rendered folder name against a parent directory; each "/"
+     * starts a nested folder and every folder name is made valid.
+     */
+    Path resolve(Path parent, String relative) {
+        Path path = parent;
+        int start = 0;
+        while (start <= relative.length()) {
+            int slash = relative.indexOf('/', start);
+            int end = slash < 0 ? relative.length() : slash;
+            if (end > start) {
+                path = path.resolve(name(relative.substring(start, end)));
+            }
+            start = end + 1;
+        }
+        return path == parent ? parent.resolve(name("")) : path;
+    }
+
+    /**
+     * Apply the per-name rules: length limit, then under the Windows rules no
+     * trailing dot or space and no device name. An empty name becomes "_",
+     * and "." or ".." become "_" or "__" so no folder points elsewhere.
+     */
+    String name(String name) {
+        if (length(name) > policy.getMaxNameLength()) {
+            name = truncate(name, policy.getMaxNameLength());
+        }
+        if (policy.isWindowsRules()) {
+            int end = name.length();
+            while (end > 0 && (name.charAt(end - 1) == '.' || name.charAt(end - 1) == ' ')) {
+                end--;
+            }
+            name = name.substring(0, end);
+        }
+        if (name.isEmpty()) {
+            return "_";
+        }
+        if (name.equals(".") || name.equals("..")) {
+            return name.replace('.', '_');
+        }
+        if (policy.isWindowsRules()) {
+            // CON and CON.anything are both reserved, in any case
+            int dot = name.indexOf('.');
+            String base = dot < 0 ? name : name.substring(0, dot);
+            if (WINDOWS_DEVICE_NAMES.contains(base.trim().toUpperCase(Locale.ROOT))) {
+                return base + "_" + name.substring(base.length());
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Shorten the last folder name of a directory so that files of up to
+     * fileNameLength characters fit in it within the policy path limit.
+     * A directory that cannot be shortened enough is returned unchanged.
+     */
+    Path fit(Path dir, int fileNameLength) {
+        int excess = length(dir.toAbsolutePath().toString()) + 1 + fileNameLength - policy.getMaxPathLength();
+        Path parent = dir.getParent();
+        if (excess <= 0 || parent == null || dir.getFileName() == null) {
+            return dir;
+        }
+        String name = dir.getFileName().toString();
+        int fitted = length(name) - excess;
+        if (fitted < MIN_FITTED_NAME_LENGTH) {
+            return dir;
+        }
+        return parent.resolve(name(truncate(name, fitted)));
+    }
+
+    /**
+     * Length in the unit of the policy limits.
+     */
+    int length(String s) {
+        if (!policy.isLengthInBytes()) {
+            return s.length();
+        }
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            bytes += utf8Length(s.charAt(i));
+        }
+        return bytes;
+    }
+
+    /**
+     * Cut a string to at most max units, never inside a surrogate pair.
+     */
+    private String truncate(String s, int max) {
+        int length = 0;
+        int i = 0;
+        while (i < s.length()) {
+            int next = Character.isHighSurrogate(s.charAt(i)) && i + 1 < s.length() ? i + 2 : i + 1;
+            int units = policy.isLengthInBytes() ? (next - i == 2 ? 4 : utf8Length(s.charAt(i))) : next - i;
+            if (length + units > max) {
+                break;
+            }
+            length += units;
+            i = next;
+        }
+        return s.substring(0, i).trim();
+    }
+
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800 || Character.isSurrogate(c)) {
+            // A surrogate pair is 4 bytes, 2 per half
+            return 2;
+        }
+        return 3;
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.warnotte.audiosorter.core;
+
+import io.github.warnotte.audiosorter.model.OrganizeMode;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+/**
+ * Places one file in the sorted tree with the requested organize mode.
+ *
+ * Each mode is attempted per file and falls back to a copy (or copy and
+ * delete, for MOVE) when the filesystem refuses it: hard links across
+ * volumes, symlinks without privilege on Windows, reflinks on filesystems
+ * without copy-on-write. Stores that refused a reflink are remembered so the
+ * clone is not retried for every file.
+ *
+ * Links and clones are made under a temporary name and renamed over the
+ * destination, which is never deleted first; a destination that already is
+ * the source is left as it is.
+ */
+final class FileOrganizer {
+
+    private static final boolean MAC = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("mac");
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("win");
+
+    private final OrganizeMode mode;
+    private final CopyStrategy copyStrategy;
+    private final Map<FileStore, Boolean> reflinkSupport = new ConcurrentHashMap<>();
+
+    FileOrganizer(OrganizeMode mode, CopyStrategy copyStrategy) {
+        this.mode = mode;
+        this.copyStrategy = copyStrategy;
+    }
+
+    /**
+     * @param digest receives the bytes if the file is copied (may be null)
+     * @return the mode actually used for this file
+     */
+    OrganizeMode organize(Path source, Path dest, CopyStrategy.Progress progress, StreamDigest digest) throws IOException {
+        switch (mode) {
+            case MOVE:
+                return move(source, dest, progress, digest);
+            case HARDLINK:
+                if (link(source, dest, false)) {
+                    return OrganizeMode.HARDLINK;
+                }
+                break;
+            case SYMLINK:
+                if (link(source, dest, true)) {
+                    return OrganizeMode.SYMLINK;
+                }
+                break;
+            case REFLINK:
+                if (reflink(source, dest)) {
+                    return OrganizeMode.REFLINK;
+                }
+                break;
+            default:
+                break;
+        }
+        copyStrategy.copy(source, dest, progress, digest);
+        return OrganizeMode.COPY;
+    }
+
+    private OrganizeMode move(Path source, Path dest, CopyStrategy.Progress progress, StreamDigest digest) throws IOException {
+        try {
+            Files.move(source, dest, ATOMIC_MOVE);
+            return OrganizeMode.MOVE;
+        } catch (AtomicMoveNotSupportedException e) {
+            // Different FileStore: copy, then remove the source
+        }
+        copyStrategy.copy(source, dest, progress, digest);
+        Files.delete(source);
+        return OrganizeMode.MOVE;
+    }
+
+    private static boolean link(Path source, Path dest, boolean symbolic) {
+        try {
+            if (FileReplacement.isSource(source, dest)) {
+                // Already in place, e.g. linked by an earlier run
+                return true;
+            }
+            FileReplacement.replace(dest, temporary -> {
+                if (symbolic) {
+                    Files.createSymbolicLink(temporary, source.toAbsolutePath());
+                } else {
+                    Files.createLink(temporary, source);
+                }
+            });
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Clone with the platform cp (cp --reflink=always on Linux, cp -c on macOS);
+     * the JDK has no API for it. Not available on Windows.
+     */
+    private boolean reflink(Path source, Path dest) {
+        if (WINDOWS) {
+            return false;
+        }
+        FileStore store = storeOf(dest.getParent());
+        if (store != null && Boolean.FALSE.equals(reflinkSupport.get(store))) {
+            return false;
+        }
+
+        boolean cloned;
+        try {
+            if (FileReplacement.isSource(source, dest)) {
+                return true;
+            }
+            FileReplacement.replace(dest, temporary -> runClone(source, temporary));
+            cloned = true;
+        } catch (IOException e) {
+            cloned = false;
+        }
+        if (store != null) {
+            // One success is enough to trust the store; a failure is only
+            // remembered while nothing has been cloned there yet
+            reflinkSupport.merge(store, cloned, (known, now) -> known || now);
+        }
+        return cloned;
+    }
+
+    /**
+     * @throws IOException if cp refused the clone
+     */
+    private static void runClone(Path source, Path dest) throws IOException {
+        ProcessBuilder pb = MAC
+            ? new ProcessBuilder("cp", "-c", source.toString(), dest.toString())
+            : new ProcessBuilder("cp", "--reflink=always", source.toString(), dest.toString());
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        try {
+            Process process = pb.start();
+            if (!process.waitFor(1, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+                throw new IOException("cp did not finish cloning " + source);
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("cp refused to clone " + source);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while cloning " + source);
+        }
+    }
+
+    private static FileStore storeOf(Path path) {
+        try {
+            return Files.getFileStore(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
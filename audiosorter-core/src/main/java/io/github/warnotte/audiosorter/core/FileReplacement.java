@@ -0,0 +1,53 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Places a destination file without writing into the one already there.
+ *
+ * The new file is made under a temporary name in the destination folder and
+ * renamed over the destination once complete, so an interrupted copy leaves
+ * the previous destination whole. A destination that is the source itself
+ * (sorting a tree into itself, or a hard link made by an earlier run) must be
+ * left alone: replacing it would destroy the only copy.
+ */
+final class FileReplacement {
+
+    private FileReplacement() {
+    }
+
+    /**
+     * Creates the new file at a path that does not exist yet.
+     */
+    @FunctionalInterface
+    interface Writer {
+        void write(Path temporary) throws IOException;
+    }
+
+    /**
+     * Whether dest already is source, by its path or through a link.
+     */
+    static boolean isSource(Path source, Path dest) throws IOException {
+        return Files.exists(dest) && Files.isSameFile(source, dest);
+    }
+
+    /**
+     * Write a file next to dest, then move it over dest.
+     */
+    static void replace(Path dest, Writer writer) throws IOException {
+        // Kept short so it fits wherever the destination name does
+        Path temporary = dest.resolveSibling("." + Integer.toHexString(ThreadLocalRandom.current().nextInt()) + ".tmp");
+        try {
+            writer.write(temporary);
+            Files.move(temporary, dest, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Copies with Files.copy (default strategy).
+ * Progress is only reported once the file is complete.
+ */
+public class FilesCopyStrategy implements CopyStrategy {
+
+    @Override
+    public void copy(Path source, Path dest, Progress progress) throws IOException {
+        Files.copy(source, dest, REPLACE_EXISTING);
+        long size = Files.size(dest);
+        progress.update(size, size);
+    }
+}
@@ -0,0 +1,233 @@
+package io.github.warnotte.audiosorter.core;
+
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Folder naming pattern, compiled once into a flat list of instructions and rendered
+ * for each directory without reparsing.
+ *
+ * Placeholders are {ARTIST}, {ALBUM}, {YEAR}, {FORMAT}, {BITRATE} (prefixed
+ * with "~" for variable bitrate), {SAMPLERATE} and {VBR} ("VBR" when the
+ * bitrate is variable). Text between &lt; and &gt; is a conditional segment,
+ * kept only when every placeholder directly inside it has a value; segments
+ * can be nested. The characters &lt; and &gt; are not valid in Windows file
+ * names, so they never need to appear literally.
+ *
+ * Tag values are passed through the sanitizer; literal text is kept as is,
+ * so a "/" in the pattern creates nested folders.
+ */
+final class FolderPattern {
+
+    enum Field {
+        ARTIST, ALBUM, YEAR, FORMAT, BITRATE, SAMPLERATE, VBR
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    // Compiled form: one instruction per segment, rendered in a single loop
+    private static final byte LITERAL = 0;
+    private static final byte FIELD = 1;
+    private static final byte OPEN = 2;
+    private static final byte CLOSE = 3;
+
+    private final String pattern;
+    private final byte[] ops;
+    // LITERAL: index in literals, FIELD: field ordinal, OPEN: index of the matching CLOSE
+    private final int[] args;
+    private final String[] literals;
+    private final int maxDepth;
+
+    private FolderPattern(String pattern, byte[] ops, int[] args, String[] literals, int maxDepth) {
+        this.pattern = pattern;
+        this.ops = ops;
+        this.args = args;
+        this.literals = literals;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @throws IllegalArgumentException on an unknown placeholder or unbalanced brackets
+     */
+    static FolderPattern compile(String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            throw new IllegalArgumentException("Folder pattern is empty");
+        }
+        Compiler compiler = new Compiler(pattern);
+        compiler.compile();
+        return compiler.build();
+    }
+
+    String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Render the folder name of a directory.
+     * @param sanitizer makes a tag value safe for a file name
+     */
+    String render(DirectoryReport report, UnaryOperator<String> sanitizer) {
+        StringBuilder out = new StringBuilder(64);
+        int[] marks = maxDepth > 0 ? new int[maxDepth] : null;
+        int[] ends = maxDepth > 0 ? new int[maxDepth] : null;
+        int depth = 0;
+        for (int i = 0; i < ops.length; i++) {
+            switch (ops[i]) {
+                case LITERAL:
+                    out.append(literals[args[i]]);
+                    break;
+                case OPEN:
+                    marks[depth] = out.length();
+                    ends[depth] = args[i];
+                    depth++;
+                    break;
+                case CLOSE:
+                    depth--;
+                    break;
+                default:
+                    if (!appendField(FIELDS[args[i]], report, sanitizer, out) && depth > 0) {
+                        // Drop the enclosing conditional segment and continue after it
+                        depth--;
+                        out.setLength(marks[depth]);
+                        i = ends[depth];
+                    }
+                    break;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return false if the field has no value
+     */
+    private static boolean appendField(Field field, DirectoryReport report,
+                                       UnaryOperator<String> sanitizer, StringBuilder out) {
+        switch (field) {
+            case ARTIST:
+                out.append(sanitizer.apply(report.getArtist()));
+                return true;
+            case ALBUM:
+                out.append(sanitizer.apply(report.getAlbum()));
+                return true;
+            case YEAR:
+                out.append(sanitizer.apply(report.getYear()));
+                return true;
+            case FORMAT:
+                if (report.getFormat() == null) {
+                    return false;
+                }
+                out.append(sanitizer.apply(report.getFormat()));
+                return true;
+            case BITRATE:
+                if (report.getBitrate() == null) {
+                    return false;
+                }
+                if (report.isVariableBitrate()) {
+                    out.append('~');
+                }
+                out.append(report.getBitrate().intValue());
+                return true;
+            case SAMPLERATE:
+                if (report.getSampleRate() == null) {
+                    return false;
+                }
+                out.append(report.getSampleRate().intValue());
+                return true;
+            case VBR:
+                if (!report.isVariableBitrate()) {
+                    return false;
+                }
+                out.append("VBR");
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static final class Compiler {
+        private final String pattern;
+        private final List<Byte> ops = new ArrayList<>();
+        private final List<Integer> args = new ArrayList<>();
+        private final List<String> literals = new ArrayList<>();
+        private final StringBuilder literal = new StringBuilder();
+        private final Deque<Integer> open = new ArrayDeque<>();
+        private int maxDepth;
+
+        Compiler(String pattern) {
+            this.pattern = pattern;
+        }
+
+        void compile() {
+            int position = 0;
+            while (position < pattern.length()) {
+                char c = pattern.charAt(position);
+                if (c == '{') {
+                    int end = pattern.indexOf('}', position);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Unclosed '{' at " + position + " in folder pattern: " + pattern);
+                    }
+                    flush();
+                    emit(FIELD, field(pattern.substring(position + 1, end)).ordinal());
+                    position = end + 1;
+                    continue;
+                }
+                if (c == '<') {
+                    flush();
+                    open.push(ops.size());
+                    maxDepth = Math.max(maxDepth, open.size());
+                    emit(OPEN, -1);
+                } else if (c == '>') {
+                    if (open.isEmpty()) {
+                        throw new IllegalArgumentException("Unbalanced '>' at " + position + " in folder pattern: " + pattern);
+                    }
+                    flush();
+                    args.set(open.pop(), ops.size());
+                    emit(CLOSE, 0);
+                } else {
+                    literal.append(c);
+                }
+                position++;
+            }
+            if (!open.isEmpty()) {
+                throw new IllegalArgumentException("Unclosed '<' in folder pattern: " + pattern);
+            }
+            flush();
+        }
+
+        FolderPattern build() {
+            byte[] opArray = new byte[ops.size()];
+            int[] argArray = new int[args.size()];
+            for (int i = 0; i < opArray.length; i++) {
+                opArray[i] = ops.get(i);
+                argArray[i] = args.get(i);
+            }
+            return new FolderPattern(pattern, opArray, argArray, literals.toArray(new String[0]), maxDepth);
+        }
+
+        private void emit(byte op, int arg) {
+            ops.add(op);
+            args.add(arg);
+        }
+
+        private void flush() {
+            if (literal.length() > 0) {
+                emit(LITERAL, literals.size());
+                literals.add(literal.toString());
+                literal.setLength(0);
+            }
+        }
+
+        private Field field(String name) {
+            try {
+                return Field.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown placeholder {" + name + "} in folder pattern: " + pattern);
+            }
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lightweight tag reader that only looks at the first few KB of a file.
+ *
+ * Handles the common layouts of MP3 (ID3v2.3/2.4 tag followed by an MPEG-1 Layer III
+ * frame), FLAC (STREAMINFO and VORBIS_COMMENT blocks) and Ogg Vorbis (identification
+ * and comment headers). Values are computed the same way as jaudiotagger so reports
+ * do not depend on which reader was used.
+ *
+ * Anything unusual (unsynchronised or compressed ID3 frames, a missing Xing header
+ * that cannot be confirmed by the next frame, oversized comment blocks...) returns
+ * null and the caller falls back to jaudiotagger.
+ * Reads go through a small pool of direct buffers shared by all scan threads.
+ */
+final class HeaderTagReader {
+
+    /**
+     * Tag and audio header values, shaped like jaudiotagger's getFirst() / AudioHeader.
+     */
+    static final class Metadata {
+        boolean tagFound;
+        String artist;
+        String album;
+        String year;
+        String format;
+        String bitRate;
+        String sampleRate;
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 64;
+    private static final Queue<ByteBuffer> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+
+    private static final int[] MPEG1_LAYER3_BITRATES = {
+        0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320
+    };
+    private static final int[] MPEG1_SAMPLE_RATES = {44100, 48000, 32000};
+
+    private static final Charset UTF_16BE = StandardCharsets.UTF_16BE;
+
+    private HeaderTagReader() {
+    }
+
+    /**
+     * Read a file's tags and audio header.
+     * @return the metadata, or null if the file must be read with jaudiotagger
+     */
+    static Metadata read(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        int type;
+        if (name.endsWith(".mp3")) {
+            type = 0;
+        } else if (name.endsWith(".flac")) {
+            type = 1;
+        } else if (name.endsWith(".ogg")) {
+            type = 2;
+        } else {
+            return null;
+        }
+
+        ByteBuffer buffer = acquireBuffer();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            switch (type) {
+                case 0:
+                    return readMp3(channel, buffer);
+                case 1:
+                    return readFlac(channel, buffer);
+                default:
+                    return readOgg(channel, buffer);
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    // ========== MP3 ==========
+
+    private static Metadata readMp3(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long fileSize = channel.size();
+        if (fill(channel, buffer, 0, 10) < 10
+                || buffer.get(0) != 'I' || buffer.get(1) != 'D' || buffer.get(2) != '3') {
+            return null;
+        }
+        int version = buffer.get(3);
+        int flags = buffer.get(5) & 0xFF;
+        // Unsynchronisation, extended header and footer are left to jaudiotagger
+        if ((version != 3 && version != 4) || (flags & 0xD0) != 0) {
+            return null;
+        }
+        long tagEnd = 10 + syncSafe(buffer, 6);
+        if (tagEnd > fileSize) {
+            return null;
+        }
+
+        Metadata metadata = new Metadata();
+        metadata.tagFound = true;
+        long position = 10;
+        while (position + 10 <= tagEnd) {
+            if (fill(channel, buffer, position, 10) < 10) {
+                return null;
+            }
+            if (buffer.get(0) == 0) {
+                break; // Padding
+            }
+            String id = frameId(buffer);
+            if (id == null) {
+                return null;
+            }
+            int size = version == 4 ? syncSafe(buffer, 4) : buffer.getInt(4);
+            int frameFlags = buffer.get(9) & 0xFF;
+            long frameEnd = position + 10 + size;
+            if (size < 0 || frameEnd > tagEnd) {
+                return null;
+            }
+
+            String year = version == 4 ? "TDRC" : "TYER";
+            boolean wanted = id.equals("TPE1") || id.equals("TALB") || id.equals(year);
+            if (isConvertedDateFrame(id, version)) {
+                // jaudiotagger merges or converts these into the year field
+                return null;
+            }
+            if (wanted) {
+                int unsupported = version == 4 ? 0x4F : 0xE0;
+                if ((frameFlags & unsupported) != 0 || size > buffer.capacity()) {
+                    return null;
+                }
+                if (fill(channel, buffer, position + 10, size) < size) {
+                    return null;
+                }
+                String text = decodeId3Text(buffer, size);
+                if (text == null) {
+                    return null;
+                }
+                if (id.equals("TPE1")) {
+                    metadata.artist = firstNonNull(metadata.artist, text);
+                } else if (id.equals("TALB")) {
+                    metadata.album = firstNonNull(metadata.album, text);
+                } else {
+                    metadata.year = firstNonNull(metadata.year, text);
+                }
+            }
+            position = frameEnd;
+        }
+
+        return readMpegFrame(channel, buffer, tagEnd, fileSize, metadata) ? metadata : null;
+    }
+
+    private static boolean isConvertedDateFrame(String id, int version) {
+        if (version == 3) {
+            return id.equals("TDAT") || id.equals("TIME") || id.equals("TDRC");
+        }
+        return id.equals("TYER") || id.equals("TDAT") || id.equals("TIME") || id.equals("TORY");
+    }
+
+    /**
+     * Read the MPEG frame starting right after the tag. Only MPEG-1 Layer III frames
+     * confirmed by a Xing/Info/VBRI header or by the following frame are accepted.
+     */
+    private static boolean readMpegFrame(FileChannel channel, ByteBuffer buffer, long start,
+                                         long fileSize, Metadata metadata) throws IOException {
+        int available = fill(channel, buffer, start, 2048);
+        if (available < 4) {
+            return false;
+        }
+        int header = buffer.getInt(0);
+        if (!isMpeg1Layer3(header)) {
+            return false;
+        }
+        int bitrate = MPEG1_LAYER3_BITRATES[(header >>> 12) & 0xF];
+        int sampleRate = MPEG1_SAMPLE_RATES[(header >>> 10) & 0x3];
+        int padding = (header >>> 9) & 0x1;
+        boolean mono = ((header >>> 6) & 0x3) == 3;
+
+        metadata.format = "Mp3";
+        metadata.sampleRate = String.valueOf(sampleRate);
+
+        int xingOffset = mono ? 21 : 36;
+        if (available >= xingOffset + 16) {
+            String marker = ascii(buffer, xingOffset, 4);
+            if (marker.equals("Xing")) {
+                int xingFlags = buffer.getInt(xingOffset + 4);
+                if ((xingFlags & 0x1) == 0) {
+                    return false;
+                }
+                int frames = buffer.getInt(xingOffset + 8);
+                int audioSize = (xingFlags & 0x2) != 0 ? buffer.getInt(xingOffset + 12) : 0;
+                return setVbrBitrate(metadata, frames, audioSize, fileSize - start, sampleRate);
+            }
+            if (marker.equals("Info")) {
+                metadata.bitRate = String.valueOf(bitrate);
+                return true;
+            }
+        }
+        if (available >= 36 + 18 && ascii(buffer, 36, 4).equals("VBRI")) {
+            int audioSize = buffer.getInt(36 + 10);
+            int frames = buffer.getInt(36 + 14);
+            return setVbrBitrate(metadata, frames, audioSize, fileSize - start, sampleRate);
+        }
+
+        // No VBR header: confirm the frame with the one that follows
+        int frameLength = 144 * bitrate * 1000 / sampleRate + padding;
+        if (available < frameLength + 4) {
+            return false;
+        }
+        int next = buffer.getInt(frameLength);
+        if (!isMpeg1Layer3(next) || ((next >>> 10) & 0x3) != ((header >>> 10) & 0x3)) {
+            return false;
+        }
+        metadata.bitRate = String.valueOf(bitrate);
+        return true;
+    }
+
+    private static boolean setVbrBitrate(Metadata metadata, int frames, int audioSize,
+                                         long audioLength, int sampleRate) {
+        if (frames <= 0) {
+            return false;
+        }
+        // int arithmetic on the header's byte count, as in jaudiotagger
+        double bits = audioSize > 0 ? audioSize * 8 : audioLength * 8;
+        double timePerFrame = 1152.0 / sampleRate;
+        long bitrate = (long) (bits / (timePerFrame * frames * 1000));
+        metadata.bitRate = "~" + bitrate;
+        return true;
+    }
+
+    private static boolean isMpeg1Layer3(int header) {
+        return (header >>> 21) == 0x7FF
+                && ((header >>> 19) & 0x3) == 3
+                && ((header >>> 17) & 0x3) == 1
+                && ((header >>> 12) & 0xF) != 0 && ((header >>> 12) & 0xF) != 0xF
+                && ((header >>> 10) & 0x3) != 3
+                && (header & 0x3) != 2;
+    }
+
+    private static String frameId(ByteBuffer buffer) {
+        for (int i = 0; i < 4; i++) {
+            byte b = buffer.get(i);
+            if (!((b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9'))) {
+                return null;
+            }
+        }
+        return ascii(buffer, 0, 4);
+    }
+
+    private static String decodeId3Text(ByteBuffer buffer, int size) {
+        if (size < 1) {
+            return null;
+        }
+        int encoding = buffer.get(0);
+        Charset charset;
+        int unit = 1;
+        switch (encoding) {
+            case 0:
+                charset = StandardCharsets.ISO_8859_1;
+                break;
+            case 1:
+                if (size < 3 || !((buffer.get(1) == (byte) 0xFF && buffer.get(2) == (byte) 0xFE)
+                        || (buffer.get(1) == (byte) 0xFE && buffer.get(2) == (byte) 0xFF))) {
+                    return null;
+                }
+                charset = StandardCharsets.UTF_16;
+                unit = 2;
+                break;
+            case 2:
+                charset = UTF_16BE;
+                unit = 2;
+                break;
+            case 3:
+                charset = StandardCharsets.UTF_8;
+                break;
+            default:
+                return null;
+        }
+        // First value only: stop at the first terminator
+        int end = 1;
+        while (end + unit <= size) {
+            if (buffer.get(end) == 0 && (unit == 1 || buffer.get(end + 1) == 0)) {
+                break;
+            }
+            end += unit;
+        }
+        byte[] bytes = new byte[end - 1];
+        buffer.get(1, bytes);
+        return new String(bytes, charset);
+    }
+
+    private static int syncSafe(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset) & 0x7F) << 21
+                | (buffer.get(offset + 1) & 0x7F) << 14
+                | (buffer.get(offset + 2) & 0x7F) << 7
+                | (buffer.get(offset + 3) & 0x7F);
+    }
+
+    // ========== FLAC ==========
+
+    private static Metadata readFlac(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long fileSize = channel.size();
+        if (fill(channel, buffer, 0, 4) < 4 || !ascii(buffer, 0, 4).equals("fLaC")) {
+            return null;
+        }
+
+        Metadata metadata = new Metadata();
+        // jaudiotagger always exposes a (possibly empty) Vorbis comment tag for FLAC
+        metadata.tagFound = true;
+        metadata.format = "Flac";
+
+        int sampleRate = 0;
+        int samples = 0;
+        boolean comments = false;
+        long position = 4;
+        boolean last = false;
+        while (!last) {
+            if (fill(channel, buffer, position, 4) < 4) {
+                return null;
+            }
+            int blockHeader = buffer.getInt(0);
+            last = (blockHeader & 0x80000000) != 0;
+            int blockType = (blockHeader >>> 24) & 0x7F;
+            int length = blockHeader & 0xFFFFFF;
+            if (blockType == 127) {
+                return null;
+            }
+            if (blockType == 0) {
+                if (length < 34 || fill(channel, buffer, position + 4, 34) < 34) {
+                    return null;
+                }
+                sampleRate = (buffer.getInt(10) >>> 12) & 0xFFFFF;
+                samples = (int) (buffer.getLong(10) & 0xFFFFFFFFFL);
+            } else if (blockType == 4 && !comments) {
+                if (length > buffer.capacity() || fill(channel, buffer, position + 4, length) < length) {
+                    return null;
+                }
+                if (!readVorbisComments(buffer, 0, length, metadata)) {
+                    return null;
+                }
+                comments = true;
+            }
+            position += 4 + length;
+            if (position > fileSize) {
+                return null;
+            }
+        }
+
+        if (sampleRate == 0 || samples <= 0) {
+            return null;
+        }
+        float length = (float) ((double) samples / sampleRate);
+        metadata.sampleRate = String.valueOf(sampleRate);
+        metadata.bitRate = String.valueOf((int) ((float) ((fileSize - position) / 1000 * 8) / length));
+        return metadata;
+    }
+
+    // ========== Ogg Vorbis ==========
+
+    private static Metadata readOgg(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer packetBuffer = acquireBuffer();
+        try {
+            return readOgg(channel, buffer, new Packets(channel, buffer, packetBuffer), fileSize);
+        } finally {
+            releaseBuffer(packetBuffer);
+        }
+    }
+
+    private static Metadata readOgg(FileChannel channel, ByteBuffer buffer, Packets packets, long fileSize)
+            throws IOException {
+
+        ByteBuffer identification = packets.next();
+        if (identification == null || identification.remaining() < 30
+                || identification.get(0) != 1 || !ascii(identification, 1, 6).equals("vorbis")) {
+            return null;
+        }
+        identification.order(ByteOrder.LITTLE_ENDIAN);
+        int sampleRate = identification.getInt(12);
+        int maxBitrate = identification.getInt(16);
+        int nominalBitrate = identification.getInt(20);
+        int minBitrate = identification.getInt(24);
+        if (sampleRate <= 0) {
+            return null;
+        }
+
+        ByteBuffer comment = packets.next();
+        if (comment == null || comment.remaining() < 7
+                || comment.get(0) != 3 || !ascii(comment, 1, 6).equals("vorbis")) {
+            return null;
+        }
+
+        Metadata metadata = new Metadata();
+        metadata.tagFound = true;
+        metadata.format = "Ogg";
+        metadata.sampleRate = String.valueOf(sampleRate);
+        if (!readVorbisComments(comment, 7, comment.remaining() - 7, metadata)) {
+            return null;
+        }
+
+        if (nominalBitrate != 0 && ((maxBitrate == nominalBitrate && minBitrate == nominalBitrate)
+                || (maxBitrate == 0 && minBitrate == 0))) {
+            metadata.bitRate = String.valueOf(nominalBitrate / 1000);
+            return metadata;
+        }
+
+        // Average bitrate from the stream length, taken from the last page's granule position
+        long granule = lastGranulePosition(channel, buffer, fileSize);
+        if (granule < 0) {
+            return null;
+        }
+        float preciseLength = (float) ((double) granule / sampleRate);
+        int trackLength = Math.round(preciseLength);
+        if (trackLength == 0) {
+            trackLength = 1;
+        }
+        metadata.bitRate = String.valueOf((int) ((fileSize / 1000 * 8) / trackLength));
+        return metadata;
+    }
+
+    private static long lastGranulePosition(FileChannel channel, ByteBuffer buffer, long fileSize)
+            throws IOException {
+        long start = Math.max(0, fileSize - buffer.capacity());
+        int available = fill(channel, buffer, start, (int) (fileSize - start));
+        // Same search as jaudiotagger: the capture pattern must end before the last byte
+        for (int i = available - 5; i >= 0; i--) {
+            if (buffer.get(i) == 'O' && buffer.get(i + 1) == 'g' && buffer.get(i + 2) == 'g'
+                    && buffer.get(i + 3) == 'S') {
+                if (i + 14 > available) {
+                    return -1;
+                }
+                return buffer.order(ByteOrder.LITTLE_ENDIAN).getLong(i + 6);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reassembles the first Ogg packets of a file, one page at a time.
+     * Packets larger than a pooled buffer are not supported.
+     */
+    private static final class Packets {
+        private final FileChannel channel;
+        private final ByteBuffer page;
+        private final ByteBuffer packet;
+        private final int[] segments = new int[255];
+        private long position;
+        private int segmentCount;
+        private int segmentIndex;
+        private long dataPosition;
+
+        Packets(FileChannel channel, ByteBuffer page, ByteBuffer packet) {
+            this.channel = channel;
+            this.page = page;
+            this.packet = packet;
+        }
+
+        ByteBuffer next() throws IOException {
+            packet.clear().order(ByteOrder.BIG_ENDIAN);
+            while (true) {
+                if (segmentIndex >= segmentCount && !readPage()) {
+                    return null;
+                }
+                int size = 0;
+                boolean complete = false;
+                while (segmentIndex < segmentCount) {
+                    int segment = segments[segmentIndex++];
+                    size += segment;
+                    if (segment < 255) {
+                        complete = true;
+                        break;
+                    }
+                }
+                if (size > packet.remaining()) {
+                    return null;
+                }
+                if (fill(channel, page, dataPosition, size) < size) {
+                    return null;
+                }
+                packet.put(page.limit(size));
+                dataPosition += size;
+                if (complete) {
+                    return packet.flip().slice();
+                }
+            }
+        }
+
+        private boolean readPage() throws IOException {
+            if (fill(channel, page, position, 27) < 27 || !ascii(page, 0, 4).equals("OggS")) {
+                return false;
+            }
+            segmentCount = page.get(26) & 0xFF;
+            segmentIndex = 0;
+            if (fill(channel, page, position + 27, segmentCount) < segmentCount) {
+                return false;
+            }
+            int pageSize = 0;
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i] = page.get(i) & 0xFF;
+                pageSize += segments[i];
+            }
+            dataPosition = position + 27 + segmentCount;
+            position = dataPosition + pageSize;
+            return true;
+        }
+    }
+
+    // ========== Shared helpers ==========
+
+    /**
+     * Read the first ARTIST, ALBUM and DATE values of a Vorbis comment block
+     * (vendor string, comment count, then length-prefixed KEY=value entries).
+     */
+    private static boolean readVorbisComments(ByteBuffer buffer, int offset, int length, Metadata metadata) {
+        ByteBuffer comments = buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+        if (comments.remaining() < 4) {
+            return false;
+        }
+        int vendorLength = comments.getInt();
+        if (vendorLength < 0 || vendorLength > comments.remaining() - 4) {
+            return false;
+        }
+        comments.position(comments.position() + vendorLength);
+        int count = comments.getInt();
+        for (int i = 0; i < count; i++) {
+            if (comments.remaining() < 4) {
+                return false;
+            }
+            int commentLength = comments.getInt();
+            if (commentLength < 0 || commentLength > comments.remaining()) {
+                return false;
+            }
+            byte[] bytes = new byte[commentLength];
+            comments.get(bytes);
+            String comment = new String(bytes, StandardCharsets.UTF_8);
+            int separator = comment.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            String key = comment.substring(0, separator).toUpperCase();
+            String value = comment.substring(separator + 1);
+            if (key.equals("ARTIST")) {
+                metadata.artist = firstNonNull(metadata.artist, value);
+            } else if (key.equals("ALBUM")) {
+                metadata.album = firstNonNull(metadata.album, value);
+            } else if (key.equals("DATE")) {
+                metadata.year = firstNonNull(metadata.year, value);
+            }
+        }
+        return true;
+    }
+
+    private static String firstNonNull(String current, String value) {
+        return current != null ? current : value;
+    }
+
+    private static String ascii(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Read up to length bytes at the given position into the buffer.
+     * @return the number of bytes available (less than length at end of file)
+     */
+    private static int fill(FileChannel channel, ByteBuffer buffer, long position, int length)
+            throws IOException {
+        buffer.clear().order(ByteOrder.BIG_ENDIAN);
+        buffer.limit(Math.min(length, buffer.capacity()));
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        return buffer.flip().remaining();
+    }
+
+    private static ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = BUFFER_POOL.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        if (BUFFER_POOL.size() < MAX_POOLED_BUFFERS) {
+            BUFFER_POOL.offer(buffer);
+        }
+    }
+}
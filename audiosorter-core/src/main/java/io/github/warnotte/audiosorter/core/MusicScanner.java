@@ -10,18 +10,43 @@ import org.jaudiotagger.audio.AudioHeader;
 import org.jaudiotagger.tag.FieldKey;
 import org.jaudiotagger.tag.Tag;
 
-import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Scans directories for audio files and extracts metadata.
  * This is the pure scanning component - no file copying.
  * Use this for catalog generation or analysis without modifying files.
+ *
+ * When configured with more than one thread, subdirectories are scanned in
+ * parallel on a ForkJoinPool. Reports are still collected in the same
+ * depth-first order as the sequential scan, so results are identical.
+ *
+ * When tag reader threads are configured, traversal and tag reading are
+ * decoupled: a single walker lists directories and hands them to a reader pool
+ * (virtual threads when the runtime supports them). Directory events are fired
+ * in walk order once each directory's tags are read.
+ *
+ * With a report sink, the scan is streamed: each completed DirectoryReport is
+ * handed to the sink and dropped, and the returned RunTotals only holds counters.
+ * The sink receives the reports in the order of the sequential scan whatever
+ * the number of threads, so what it builds from them (e.g. the destinations
+ * planned by a pipelined sort) does not depend on thread timing.
  */
 public class MusicScanner {
 
@@ -35,7 +60,14 @@ public class MusicScanner {
     private final AtomicBoolean cancelled = new AtomicBoolean(false);
     private final RunTotals runTotals = new RunTotals();
 
-    private int processedDirs = 0;
+    private int threads = 1;
+    private int tagReaderThreads = 0;
+    private ScanCache scanCache;
+    private boolean fastTagReading = true;
+    private DirectoryReportSink reportSink;
+    private boolean keepReports = true;
+    private final AtomicInteger processedDirs = new AtomicInteger();
+    private final StringPool strings = new StringPool();
 
     /**
      * Create a scanner with default settings.
@@ -55,6 +87,9 @@ public class MusicScanner {
              config.getDefaultArtist(),
              config.getDefaultAlbum(),
              config.getDefaultYear());
+        this.threads = config.getScanThreads();
+        this.tagReaderThreads = config.getTagReaderThreads();
+        this.fastTagReading = config.isFastTagReading();
     }
 
     /**
@@ -89,6 +124,83 @@ public class MusicScanner {
         return inputDirectory;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of scan threads (1 = sequential scan).
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Scan threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public int getTagReaderThreads() {
+        return tagReaderThreads;
+    }
+
+    /**
+     * Set the number of tag reader threads (0 = read tags inline).
+     * When set, it takes precedence over the parallel scan threads.
+     */
+    public void setTagReaderThreads(int tagReaderThreads) {
+        if (tagReaderThreads < 0) {
+            throw new IllegalArgumentException("Tag reader threads must not be negative: " + tagReaderThreads);
+        }
+        this.tagReaderThreads = tagReaderThreads;
+    }
+
+    public ScanCache getScanCache() {
+        return scanCache;
+    }
+
+    /**
+     * Use a scan cache for incremental scans (null to always read tags).
+     * Tags are only read for directories whose cached entry is out of date.
+     */
+    public void setScanCache(ScanCache scanCache) {
+        this.scanCache = scanCache;
+    }
+
+    public boolean isFastTagReading() {
+        return fastTagReading;
+    }
+
+    /**
+     * Read MP3, FLAC and Ogg tags from file headers only, falling back to
+     * jaudiotagger for anything the header reader does not handle (default: true).
+     */
+    public void setFastTagReading(boolean fastTagReading) {
+        this.fastTagReading = fastTagReading;
+    }
+
+    public DirectoryReportSink getReportSink() {
+        return reportSink;
+    }
+
+    /**
+     * Stream completed reports to a sink instead of keeping them in the RunTotals
+     * (null to keep every report). Reports reach the sink as directories complete,
+     * in the order of the sequential scan: a directory after its subdirectories,
+     * subdirectories in listing order. A parallel scan holds a report back until
+     * the reports before it have been handed over.
+     */
+    public void setReportSink(DirectoryReportSink reportSink) {
+        setReportSink(reportSink, false);
+    }
+
+    /**
+     * Hand completed reports to a sink.
+     * @param keepReports true to also keep the reports in the RunTotals, false to only count them
+     */
+    public void setReportSink(DirectoryReportSink reportSink, boolean keepReports) {
+        this.reportSink = reportSink;
+        this.keepReports = reportSink == null || keepReports;
+    }
+
     /**
      * Execute the scan.
      * @return RunTotals containing the scan results
@@ -102,13 +214,26 @@ public class MusicScanner {
         }
 
         cancelled.set(false);
-        processedDirs = 0;
+        processedDirs.set(0);
 
         runTotals.setStartTime(Instant.now());
         fireOnScanStarted();
 
         // Start recursive scanning
-        scanDirectory(inputDirectory.toFile(), 0);
+        try {
+            if (tagReaderThreads > 0) {
+                try (TagReaderPipeline pipeline = new TagReaderPipeline(tagReaderThreads)) {
+                    scanDirectory(inputDirectory, 0, pipeline);
+                    pipeline.drain();
+                }
+            } else if (threads > 1) {
+                scanParallel();
+            } else {
+                scanDirectory(inputDirectory, 0, null);
+            }
+        } finally {
+            strings.clear();
+        }
 
         runTotals.setEndTime(Instant.now());
         fireOnScanCompleted();
@@ -116,110 +241,448 @@ public class MusicScanner {
         return runTotals;
     }
 
-    private void scanDirectory(File directory, int depth) {
+    private void scanDirectory(Path dirPath, int depth, TagReaderPipeline pipeline) {
         if (cancelled.get()) {
             return;
         }
 
-        Path dirPath = directory.toPath();
         fireOnDirectoryEntered(dirPath, depth);
 
         DirectoryReport report = new DirectoryReport(dirPath, depth);
-        runTotals.addDirectoryReport(report);
-        processedDirs++;
+        if (keepReports) {
+            runTotals.addDirectoryReport(report);
+        }
+        processedDirs.incrementAndGet();
+
+        DirectoryListing listing = listDirectory(dirPath);
 
         // Process subdirectories first (depth-first)
-        File[] subdirs = directory.listFiles(File::isDirectory);
-        if (subdirs != null) {
-            for (File subdir : subdirs) {
-                scanDirectory(subdir, depth + 1);
+        for (Path subdir : listing.subdirectories) {
+            scanDirectory(subdir, depth + 1, pipeline);
+        }
+
+        if (pipeline != null) {
+            pipeline.submit(report, listing);
+        } else {
+            processFiles(report, listing);
+            if (reportSink != null) {
+                publish(report);
+            }
+        }
+    }
+
+    private void scanParallel() {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            OrderedPublisher publisher = new OrderedPublisher();
+            OrderedPublisher.Slot root = reportSink != null ? publisher.root() : null;
+            List<DirectoryReport> reports = pool.invoke(new ScanTask(inputDirectory, 0, publisher, root));
+            for (DirectoryReport report : reports) {
+                runTotals.addDirectoryReport(report);
             }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Scans one directory and forks a subtask per subdirectory.
+     * Returns the reports of the whole subtree in depth-first order
+     * (this directory first, then each subdirectory in listing order).
+     *
+     * With a report sink, each directory has a slot in the {@link OrderedPublisher}:
+     * the slots of its subdirectories are placed before its own as it is listed.
+     */
+    private class ScanTask extends RecursiveTask<List<DirectoryReport>> {
+        private final Path dirPath;
+        private final int depth;
+        private final OrderedPublisher publisher;
+        // This directory's place in the publishing order (null without a sink)
+        private final OrderedPublisher.Slot slot;
+
+        ScanTask(Path dirPath, int depth, OrderedPublisher publisher, OrderedPublisher.Slot slot) {
+            this.dirPath = dirPath;
+            this.depth = depth;
+            this.publisher = publisher;
+            this.slot = slot;
         }
 
-        // Get all files and audio files in this directory
-        File[] allFiles = directory.listFiles(File::isFile);
-        File[] audioFiles = directory.listFiles((dir, name) -> isAudioFile(name));
-        File[] imageFiles = directory.listFiles((dir, name) -> isImageFile(name));
-        int totalFileCount = allFiles == null ? 0 : allFiles.length;
-        int fileCount = audioFiles == null ? 0 : audioFiles.length;
+        @Override
+        protected List<DirectoryReport> compute() {
+            List<DirectoryReport> reports = new ArrayList<>();
+            List<ScanTask> subtasks = new ArrayList<>();
+            DirectoryReport completed = null;
+            try {
+                if (cancelled.get()) {
+                    return reports;
+                }
+
+                fireOnDirectoryEntered(dirPath, depth);
+
+                DirectoryReport report = new DirectoryReport(dirPath, depth);
+                if (keepReports) {
+                    reports.add(report);
+                }
+                processedDirs.incrementAndGet();
+
+                DirectoryListing listing = listDirectory(dirPath);
+                for (Path subdir : listing.subdirectories) {
+                    OrderedPublisher.Slot subdirSlot = slot != null ? publisher.insertBefore(slot) : null;
+                    ScanTask task = new ScanTask(subdir, depth + 1, publisher, subdirSlot);
+                    task.fork();
+                    subtasks.add(task);
+                }
+
+                // Read this directory's tags while the subdirectories are scanned
+                processFiles(report, listing);
+                completed = report;
+            } finally {
+                // Also when cancelled or failed, so the directories after this one are not held back
+                if (slot != null) {
+                    publisher.complete(slot, completed);
+                }
+            }
+
+            // Join in listing order to keep the final ordering deterministic
+            for (ScanTask task : subtasks) {
+                reports.addAll(task.join());
+            }
+            return reports;
+        }
+    }
+
+    /**
+     * Hands the reports of a parallel scan to the sink in the order of the
+     * sequential scan, whichever thread completes them.
+     *
+     * Directories hold slots in a linked list kept in that order. Reports are
+     * published from the head of the list for as long as the head is
+     * complete, in a loop run by one thread at a time; a report completed
+     * early waits in its slot until the reports before it are published.
+     */
+    private class OrderedPublisher {
+        private final Slot head = new Slot();
+        private boolean draining;
+
+        final class Slot {
+            private Slot previous;
+            private Slot next;
+            private boolean complete;
+            private DirectoryReport report;
+        }
+
+        OrderedPublisher() {
+            head.next = head;
+            head.previous = head;
+        }
+
+        /**
+         * Slot of the scan root.
+         */
+        synchronized Slot root() {
+            return insertBefore(head);
+        }
+
+        /**
+         * New slot published just before the given one, which must not be complete yet.
+         */
+        synchronized Slot insertBefore(Slot slot) {
+            Slot inserted = new Slot();
+            inserted.previous = slot.previous;
+            inserted.next = slot;
+            slot.previous.next = inserted;
+            slot.previous = inserted;
+            return inserted;
+        }
+
+        /**
+         * Complete a slot, then publish every complete report at the head of
+         * the list unless another thread is already doing it.
+         * @param report null if the directory has nothing to publish
+         */
+        void complete(Slot slot, DirectoryReport report) {
+            synchronized (this) {
+                slot.report = report;
+                slot.complete = true;
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            boolean drained = false;
+            try {
+                while (true) {
+                    DirectoryReport next;
+                    synchronized (this) {
+                        Slot first = head.next;
+                        if (first == head || !first.complete) {
+                            draining = false;
+                            drained = true;
+                            return;
+                        }
+                        head.next = first.next;
+                        first.next.previous = head;
+                        next = first.report;
+                    }
+                    if (next != null) {
+                        publish(next);
+                    }
+                }
+            } finally {
+                if (!drained) {
+                    // Let the next completion carry on after an error thrown by the sink
+                    synchronized (this) {
+                        draining = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads tags on a separate pool while the walker keeps listing directories.
+     * At most {@code 2 * threads} directories are in flight; when the window is
+     * full the walker completes the oldest one first, which bounds memory and
+     * keeps directory events in walk order.
+     */
+    private class TagReaderPipeline implements AutoCloseable {
+        private final ExecutorService executor;
+        private final int capacity;
+        private final Deque<PendingDirectory> pending = new ArrayDeque<>();
+
+        TagReaderPipeline(int threads) {
+            this.executor = newTagReaderExecutor(threads);
+            this.capacity = threads * 2;
+        }
+
+        void submit(DirectoryReport report, DirectoryListing listing) {
+            while (pending.size() >= capacity) {
+                completeOldest();
+            }
+            Future<?> tags = null;
+            if (prepareReport(report, listing)) {
+                tags = executor.submit(() -> {
+                    if (!cancelled.get()) {
+                        loadMetadata(report, listing);
+                    }
+                });
+            }
+            pending.add(new PendingDirectory(report, tags, processedDirs.get()));
+        }
+
+        void drain() {
+            while (!pending.isEmpty()) {
+                completeOldest();
+            }
+        }
+
+        private void completeOldest() {
+            PendingDirectory next = pending.poll();
+            if (next.tags != null) {
+                try {
+                    next.tags.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                } catch (ExecutionException e) {
+                    fireOnError("Failed to read tags: " + next.report.getPath(), e);
+                }
+            }
+            fireDirectoryEvents(next.report, next.processedDirs);
+            if (reportSink != null) {
+                publish(next.report);
+            }
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class PendingDirectory {
+        final DirectoryReport report;
+        final Future<?> tags;
+        final int processedDirs;
+
+        PendingDirectory(DirectoryReport report, Future<?> tags, int processedDirs) {
+            this.report = report;
+            this.tags = tags;
+            this.processedDirs = processedDirs;
+        }
+    }
+
+    /**
+     * Use virtual threads when running on Java 21+, a fixed platform pool otherwise.
+     */
+    private static ExecutorService newTagReaderExecutor(int threads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * List a directory in a single pass.
+     * An unreadable directory is reported and treated as empty.
+     */
+    private DirectoryListing listDirectory(Path dirPath) {
+        try {
+            return DirectoryListing.read(dirPath, this::isAudioFile, this::isImageFile);
+        } catch (IOException e) {
+            fireOnError("Failed to list directory: " + dirPath, e);
+            return DirectoryListing.empty();
+        }
+    }
+
+    private void processFiles(DirectoryReport report, DirectoryListing listing) {
+        if (prepareReport(report, listing)) {
+            loadMetadata(report, listing);
+        }
+        fireDirectoryEvents(report, processedDirs.get());
+    }
+
+    /**
+     * Fill the report with what the listing tells about the directory.
+     * @return true if the directory has audio files whose tags must be loaded
+     */
+    private boolean prepareReport(DirectoryReport report, DirectoryListing listing) {
+        int totalFileCount = listing.getFileCount();
+        int fileCount = listing.audioFiles.size();
         int nonAudioCount = totalFileCount - fileCount;
-        int subdirCount = subdirs == null ? 0 : subdirs.length;
 
         // Track file counts for statistics
         runTotals.addFileCounts(totalFileCount, nonAudioCount);
 
         // Check for cover art
-        if (imageFiles != null && imageFiles.length > 0) {
+        if (!listing.imageFiles.isEmpty()) {
             report.setHasImageFile(true);
-            report.setCoverImagePath(imageFiles[0].getAbsolutePath());
+            report.setCoverImageName(listing.imageFiles.get(0).path.getFileName().toString());
         }
 
-        // Store audio file paths for playback
-        if (audioFiles != null) {
-            for (File audioFile : audioFiles) {
-                report.addAudioFilePath(audioFile.getAbsolutePath());
-            }
+        // Store all files with their attributes for the sort, and audio file names for playback
+        listing.recordSourceFiles(report);
+        for (int i = 0; i < fileCount; i++) {
+            report.addAudioFileName(report.getSourceFileName(i));
         }
+        report.setAudioBytes(listing.getAudioBytes());
 
         if (fileCount == 0) {
             // Only mark as truly empty if no subdirectories (parent dirs are normal)
-            if (subdirCount == 0) {
+            if (listing.subdirectories.isEmpty()) {
                 report.setEmpty(true);
-                fireOnDirectoryEmpty(dirPath);
             }
-            fireOnDirectoryCompleted(report);
-            return;
+            return false;
         }
 
-        fireOnFilesFound(dirPath, fileCount);
         report.setScannedFilesCount(fileCount);
+        return true;
+    }
+
+    /**
+     * Load tags from the scan cache, or read them from the audio files.
+     */
+    private void loadMetadata(DirectoryReport report, DirectoryListing listing) {
+        if (scanCache == null || !scanCache.restore(report, listing)) {
+            readMetadata(report, listing);
+            if (scanCache != null) {
+                scanCache.store(report, listing);
+            }
+        }
+        // One instance of each value repeated across directories
+        report.setArtist(strings.intern(report.getArtist()));
+        report.setYear(strings.intern(report.getYear()));
+        report.setFormat(strings.intern(report.getFormat()));
+    }
+
+    private void fireDirectoryEvents(DirectoryReport report, int processed) {
+        Path dirPath = report.getPath();
+        int fileCount = report.getScannedFilesCount();
 
+        if (fileCount == 0) {
+            if (report.isEmpty()) {
+                fireOnDirectoryEmpty(dirPath);
+            }
+        } else {
+            fireOnFilesFound(dirPath, fileCount);
+
+            if (report.isTagFound()) {
+                fireOnTagsRead(dirPath, report.getArtist(), report.getAlbum(), report.getYear());
+            } else {
+                fireOnTagsMissing(dirPath);
+            }
+
+            fireOnProgressUpdate(processed, -1);
+        }
+        fireOnDirectoryCompleted(report);
+    }
+
+    /**
+     * Hand a completed report to the sink, then count it if it is not kept.
+     * Counting afterwards lets a sink that sorts the directory contribute its copy results.
+     */
+    private synchronized void publish(DirectoryReport report) {
+        try {
+            reportSink.accept(report);
+        } catch (IOException | RuntimeException e) {
+            fireOnError("Failed to handle directory report: " + report.getPath(), e);
+        }
+        if (!keepReports) {
+            runTotals.countDirectoryReport(report);
+        }
+    }
+
+    /**
+     * Read tags and audio format from the first audio file with valid tags.
+     * Fills the report only; events are fired by the caller.
+     */
+    private void readMetadata(DirectoryReport report, DirectoryListing listing) {
         // Extract metadata from first file with valid tags
-        Tag tag = null;
-        AudioHeader audioHeader = null;
+        HeaderTagReader.Metadata tag = null;
+        HeaderTagReader.Metadata audioHeader = null;
 
-        for (File audioFile : audioFiles) {
-            try {
-                AudioFile af = AudioFileIO.read(audioFile);
-                audioHeader = af.getAudioHeader();
-                Tag t = af.getTag();
-                if (t != null) {
-                    tag = t;
-                    break;
-                }
-            } catch (Exception e) {
+        for (DirectoryListing.Entry audioFile : listing.audioFiles) {
+            HeaderTagReader.Metadata metadata = fastTagReading ? HeaderTagReader.read(audioFile.path) : null;
+            if (metadata == null) {
+                metadata = readWithJaudiotagger(audioFile.path);
+            }
+            if (metadata == null) {
                 // Skip files that can't be read
                 continue;
             }
+            audioHeader = metadata;
+            if (metadata.tagFound) {
+                tag = metadata;
+                break;
+            }
         }
 
         // Extract metadata
         String artist = defaultArtist;
-        String album = defaultAlbum + " (" + directory.getName() + ")";
+        String album = defaultAlbum + " (" + report.getPath().toFile().getName() + ")";
         String year = defaultYear;
 
         if (tag != null) {
             report.setTagFound(true);
 
-            String tagYear = tag.getFirst(FieldKey.YEAR);
+            String tagYear = tag.year;
             if (tagYear != null && !tagYear.isEmpty()) {
                 year = tagYear;
             }
 
-            String tagAlbum = tag.getFirst(FieldKey.ALBUM);
+            String tagAlbum = tag.album;
             if (tagAlbum != null && !tagAlbum.isEmpty()) {
                 album = tagAlbum;
             }
 
-            String tagArtist = tag.getFirst(FieldKey.ARTIST);
+            String tagArtist = tag.artist;
             if (tagArtist != null && !tagArtist.isEmpty()) {
                 artist = tagArtist;
             }
-
-            fireOnTagsRead(dirPath, artist, album, year);
         } else {
             report.setTagFound(false);
-            fireOnTagsMissing(dirPath);
         }
 
         // Store metadata in report
@@ -229,9 +692,9 @@ public class MusicScanner {
 
         // Extract audio format info
         if (audioHeader != null) {
-            report.setFormat(audioHeader.getFormat().toUpperCase());
+            report.setFormat(audioHeader.format.toUpperCase());
 
-            String bitrateStr = audioHeader.getBitRate();
+            String bitrateStr = audioHeader.bitRate;
             boolean vbr = bitrateStr.contains("~");
             report.setVariableBitrate(vbr);
 
@@ -243,15 +706,37 @@ public class MusicScanner {
             }
 
             try {
-                int sampleRate = Integer.parseInt(audioHeader.getSampleRate());
+                int sampleRate = Integer.parseInt(audioHeader.sampleRate);
                 report.setSampleRate(sampleRate);
             } catch (NumberFormatException e) {
                 // Ignore
             }
         }
+    }
 
-        fireOnProgressUpdate(processedDirs, -1);
-        fireOnDirectoryCompleted(report);
+    /**
+     * Read a file with jaudiotagger.
+     * @return the metadata, or null if the file can't be read
+     */
+    private HeaderTagReader.Metadata readWithJaudiotagger(Path path) {
+        try {
+            AudioFile af = AudioFileIO.read(path.toFile());
+            AudioHeader header = af.getAudioHeader();
+            HeaderTagReader.Metadata metadata = new HeaderTagReader.Metadata();
+            metadata.format = header.getFormat();
+            metadata.bitRate = header.getBitRate();
+            metadata.sampleRate = header.getSampleRate();
+            Tag t = af.getTag();
+            if (t != null) {
+                metadata.tagFound = true;
+                metadata.artist = t.getFirst(FieldKey.ARTIST);
+                metadata.album = t.getFirst(FieldKey.ALBUM);
+                metadata.year = t.getFirst(FieldKey.YEAR);
+            }
+            return metadata;
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     private boolean isAudioFile(String filename) {
@@ -267,62 +752,63 @@ public class MusicScanner {
     }
 
     // Event firing methods
+    // Synchronized so listeners see one event at a time during parallel scans.
 
-    private void fireOnScanStarted() {
+    private synchronized void fireOnScanStarted() {
         for (ScanProgressListener l : listeners) {
             l.onScanStarted(inputDirectory);
         }
     }
 
-    private void fireOnDirectoryEntered(Path dir, int depth) {
+    private synchronized void fireOnDirectoryEntered(Path dir, int depth) {
         for (ScanProgressListener l : listeners) {
             l.onDirectoryEntered(dir, depth);
         }
     }
 
-    private void fireOnFilesFound(Path dir, int count) {
+    private synchronized void fireOnFilesFound(Path dir, int count) {
         for (ScanProgressListener l : listeners) {
             l.onFilesFound(dir, count);
         }
     }
 
-    private void fireOnDirectoryEmpty(Path dir) {
+    private synchronized void fireOnDirectoryEmpty(Path dir) {
         for (ScanProgressListener l : listeners) {
             l.onDirectoryEmpty(dir);
         }
     }
 
-    private void fireOnTagsRead(Path dir, String artist, String album, String year) {
+    private synchronized void fireOnTagsRead(Path dir, String artist, String album, String year) {
         for (ScanProgressListener l : listeners) {
             l.onTagsRead(dir, artist, album, year);
         }
     }
 
-    private void fireOnTagsMissing(Path dir) {
+    private synchronized void fireOnTagsMissing(Path dir) {
         for (ScanProgressListener l : listeners) {
             l.onTagsMissing(dir);
         }
     }
 
-    private void fireOnDirectoryCompleted(DirectoryReport report) {
+    private synchronized void fireOnDirectoryCompleted(DirectoryReport report) {
         for (ScanProgressListener l : listeners) {
             l.onDirectoryCompleted(report);
         }
     }
 
-    private void fireOnProgressUpdate(int dirs, int totalDirs) {
+    private synchronized void fireOnProgressUpdate(int dirs, int totalDirs) {
         for (ScanProgressListener l : listeners) {
             l.onProgressUpdate(dirs, totalDirs);
         }
     }
 
-    private void fireOnScanCompleted() {
+    private synchronized void fireOnScanCompleted() {
         for (ScanProgressListener l : listeners) {
             l.onScanCompleted(runTotals);
         }
     }
 
-    private void fireOnError(String message, Exception e) {
+    private synchronized void fireOnError(String message, Exception e) {
         for (ScanProgressListener l : listeners) {
             l.onError(message, e);
         }
@@ -3,19 +3,23 @@ package io.github.warnotte.audiosorter.core;
 import io.github.warnotte.audiosorter.listener.SortProgressListener;
 import io.github.warnotte.audiosorter.model.DirectoryReport;
 import io.github.warnotte.audiosorter.model.FileReport;
+import io.github.warnotte.audiosorter.model.OrganizeMode;
 import io.github.warnotte.audiosorter.model.RunTotals;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
-
-import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Sorts/copies audio files based on scan results.
@@ -23,11 +27,37 @@ import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
  */
 public class MusicSorter {
 
+    // Timestamp granularity of the coarsest common filesystem (FAT)
+    private static final long MODIFIED_TIME_WINDOW_MILLIS = 2000;
+
     private final Path outputDirectory;
     private final List<SortProgressListener> listeners = new ArrayList<>();
     private final AtomicBoolean cancelled = new AtomicBoolean(false);
-
-    private int processedFiles = 0;
+    private volatile boolean errorReported;
+
+    private final AtomicInteger processedFiles = new AtomicInteger();
+    private final AtomicLong bytesCopied = new AtomicLong();
+    private Instant copyStart;
+
+    private int copyThreads = 1;
+    private int streamsPerStore = 4;
+    private Map<String, Integer> storeStreams = Map.of();
+    private CopyExecutor copyExecutor;
+    private CopyStrategy copyStrategy = new FilesCopyStrategy();
+    private OrganizeMode organizeMode = OrganizeMode.COPY;
+    private FileOrganizer organizer;
+    private boolean skipUnchanged = false;
+    private boolean compareContent = false;
+    private volatile SortJournal journal;
+    private ChecksumAlgorithm checksumAlgorithm = null;
+    private boolean verifyChecksum = false;
+    private final BandwidthThrottle throttle = new BandwidthThrottle(0);
+    private FolderPattern artistPattern = FolderPattern.compile(SortConfiguration.DEFAULT_ARTIST_FOLDER_PATTERN);
+    private FolderPattern albumPattern = FolderPattern.compile(SortConfiguration.DEFAULT_ALBUM_FOLDER_PATTERN);
+    private FileNameSanitizer sanitizer = new FileNameSanitizer(FileNamePolicy.PORTABLE);
+    private CollisionPolicy collisionPolicy = CollisionPolicy.RENAME;
+    private DestinationPlanner planner;
+    private int reportedCollisions;
 
     public MusicSorter(Path outputDirectory) {
         this.outputDirectory = outputDirectory;
@@ -35,6 +65,20 @@ public class MusicSorter {
 
     public MusicSorter(SortConfiguration config) {
         this.outputDirectory = config.getOutputDirectory();
+        this.copyThreads = config.getCopyThreads();
+        this.streamsPerStore = config.getStreamsPerStore();
+        this.storeStreams = config.getStoreStreams();
+        this.copyStrategy = config.getCopyStrategy();
+        this.organizeMode = config.getOrganizeMode();
+        this.skipUnchanged = config.isSkipUnchanged();
+        this.compareContent = config.isCompareContent();
+        this.checksumAlgorithm = config.getChecksumAlgorithm();
+        this.verifyChecksum = config.isVerifyChecksum();
+        this.throttle.setLimit(config.getBandwidthLimit());
+        this.artistPattern = FolderPattern.compile(config.getArtistFolderPattern());
+        this.albumPattern = FolderPattern.compile(config.getAlbumFolderPattern());
+        this.sanitizer = new FileNameSanitizer(config.getFileNamePolicy());
+        this.collisionPolicy = config.getCollisionPolicy();
     }
 
     public void addListener(SortProgressListener listener) {
@@ -53,195 +97,653 @@ public class MusicSorter {
         return cancelled.get();
     }
 
+    /**
+     * Whether the current or last sort reported an error other than a failed file.
+     */
+    public boolean isErrorReported() {
+        return errorReported;
+    }
+
     public Path getOutputDirectory() {
         return outputDirectory;
     }
 
+    public int getCopyThreads() {
+        return copyThreads;
+    }
+
+    /**
+     * Set the number of files copied at once (1 = sequential copy).
+     */
+    public void setCopyThreads(int copyThreads) {
+        if (copyThreads < 1) {
+            throw new IllegalArgumentException("Copy threads must be at least 1: " + copyThreads);
+        }
+        this.copyThreads = copyThreads;
+    }
+
+    public int getStreamsPerStore() {
+        return streamsPerStore;
+    }
+
+    /**
+     * Set the default number of concurrent copies per FileStore (source or destination).
+     * Rotational disks default to a single stream.
+     */
+    public void setStreamsPerStore(int streamsPerStore) {
+        if (streamsPerStore < 1) {
+            throw new IllegalArgumentException("Streams per store must be at least 1: " + streamsPerStore);
+        }
+        this.streamsPerStore = streamsPerStore;
+    }
+
+    public Map<String, Integer> getStoreStreams() {
+        return storeStreams;
+    }
+
+    /**
+     * Override the number of concurrent copies for some FileStores, keyed by FileStore name.
+     */
+    public void setStoreStreams(Map<String, Integer> storeStreams) {
+        this.storeStreams = Map.copyOf(storeStreams);
+    }
+
+    public CopyStrategy getCopyStrategy() {
+        return copyStrategy;
+    }
+
+    /**
+     * Set how individual files are copied (default: {@link FilesCopyStrategy}).
+     */
+    public void setCopyStrategy(CopyStrategy copyStrategy) {
+        if (copyStrategy == null) {
+            throw new IllegalArgumentException("Copy strategy is required");
+        }
+        this.copyStrategy = copyStrategy;
+    }
+
+    public OrganizeMode getOrganizeMode() {
+        return organizeMode;
+    }
+
+    /**
+     * Set how files are placed in the output tree (default: COPY).
+     * Links and moves fall back to a copy per file when the filesystem refuses them.
+     */
+    public void setOrganizeMode(OrganizeMode organizeMode) {
+        if (organizeMode == null) {
+            throw new IllegalArgumentException("Organize mode is required");
+        }
+        this.organizeMode = organizeMode;
+    }
+
+    public boolean isSkipUnchanged() {
+        return skipUnchanged;
+    }
+
+    /**
+     * Leave destinations that already match their source (same size and
+     * modification time) instead of copying them again. Copied files then
+     * keep the source modification time so the next run can recognise them.
+     */
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    public boolean isCompareContent() {
+        return compareContent;
+    }
+
+    /**
+     * With skip-unchanged, compare file contents instead of modification times.
+     * Slower (both files are read) but also recognises destinations whose
+     * timestamps were not preserved.
+     */
+    public void setCompareContent(boolean compareContent) {
+        this.compareContent = compareContent;
+    }
+
+    public ChecksumAlgorithm getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    /**
+     * Compute a checksum of each copied file while it is copied (null for none).
+     * The digest is stored in the file report.
+     */
+    public void setChecksumAlgorithm(ChecksumAlgorithm checksumAlgorithm) {
+        this.checksumAlgorithm = checksumAlgorithm;
+    }
+
+    public boolean isVerifyChecksum() {
+        return verifyChecksum;
+    }
+
+    /**
+     * Read each destination back after copying and fail the file if its
+     * checksum differs. Requires a checksum algorithm.
+     */
+    public void setVerifyChecksum(boolean verifyChecksum) {
+        this.verifyChecksum = verifyChecksum;
+    }
+
+    public String getArtistFolderPattern() {
+        return artistPattern.getPattern();
+    }
+
+    /**
+     * Set the pattern naming artist folders (see {@link SortConfiguration#setArtistFolderPattern}).
+     */
+    public void setArtistFolderPattern(String pattern) {
+        this.artistPattern = FolderPattern.compile(pattern);
+    }
+
+    public String getAlbumFolderPattern() {
+        return albumPattern.getPattern();
+    }
+
+    /**
+     * Set the pattern naming album folders (see {@link SortConfiguration#setAlbumFolderPattern}).
+     */
+    public void setAlbumFolderPattern(String pattern) {
+        this.albumPattern = FolderPattern.compile(pattern);
+    }
+
+    public FileNamePolicy getFileNamePolicy() {
+        return sanitizer.getPolicy();
+    }
+
+    /**
+     * Set the system whose file name rules the folder names must follow.
+     */
+    public void setFileNamePolicy(FileNamePolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("File name policy must not be null");
+        }
+        this.sanitizer = new FileNameSanitizer(policy);
+    }
+
+    public CollisionPolicy getCollisionPolicy() {
+        return collisionPolicy;
+    }
+
+    /**
+     * Set what happens when two source files would be copied to the same destination.
+     */
+    public void setCollisionPolicy(CollisionPolicy collisionPolicy) {
+        if (collisionPolicy == null) {
+            throw new IllegalArgumentException("Collision policy must not be null");
+        }
+        this.collisionPolicy = collisionPolicy;
+    }
+
+    public double getBandwidthLimit() {
+        return throttle.getLimit();
+    }
+
+    /**
+     * Limit the copy rate in MB/s across all copy threads (0 = no limit).
+     * Can be changed while a sort is running. Copies are paced per chunk, so
+     * the limit is smoothest with a chunked copy strategy; Files.copy is
+     * paced per file.
+     */
+    public void setBandwidthLimit(double megabytesPerSecond) {
+        throttle.setLimit(megabytesPerSecond);
+    }
+
+    public SortJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Record planned and completed copies in a journal (null for none).
+     * Copies and directories the journal already lists as completed are skipped.
+     * The caller opens and closes the journal.
+     */
+    public void setJournal(SortJournal journal) {
+        this.journal = journal;
+    }
+
     /**
      * Sort files based on scan results.
      * @param scanResults The results from MusicScanner.scan()
      * @return Updated RunTotals with copy information
      */
     public RunTotals sort(RunTotals scanResults) {
+        if (!begin()) {
+            return scanResults;
+        }
+
+        // Plan every destination and create the folders before copying
+        try {
+            planner.planAll(scanResults.getDirectoryReports());
+        } catch (DestinationPlanner.CollisionException e) {
+            reportCollisions();
+            fireOnError("Sort stopped before copying: " + e.getMessage(), null);
+            complete(scanResults);
+            return scanResults;
+        }
+        reportCollisions();
+        fireOnSortPlanned(scanResults.getDirectoryReports());
+
+        // Process each directory report
+        scanResults.setCopyStartTime(Instant.now());
+        for (DirectoryReport report : scanResults.getDirectoryReports()) {
+            if (cancelled.get()) {
+                break;
+            }
+            sortDirectory(report);
+        }
+        scanResults.setCopyEndTime(Instant.now());
+
+        complete(scanResults);
+        return scanResults;
+    }
+
+    /**
+     * Prepare a sort: reset the state and create the output directory.
+     * Used with {@link #sortDirectory} and {@link #complete} when directories
+     * are fed one at a time (pipelined runs); {@link #sort} calls it itself.
+     * @return false if the output directory cannot be created
+     */
+    public boolean begin() {
         if (outputDirectory == null) {
             throw new IllegalStateException("Output directory is required");
         }
 
         cancelled.set(false);
-        processedFiles = 0;
+        errorReported = false;
+        processedFiles.set(0);
+        bytesCopied.set(0);
+        copyStart = Instant.now();
 
         // Create output directory
         try {
             Files.createDirectories(outputDirectory);
         } catch (IOException e) {
             fireOnError("Failed to create output directory", e);
-            return scanResults;
+            return false;
         }
 
-        fireOnSortStarted(null, outputDirectory, false);
-
-        // Process each directory report
-        for (DirectoryReport report : scanResults.getDirectoryReports()) {
-            if (cancelled.get()) {
-                break;
-            }
+        organizer = new FileOrganizer(organizeMode, copyStrategy);
+        planner = new DestinationPlanner(outputDirectory, artistPattern, albumPattern, sanitizer, collisionPolicy);
+        SortJournal journal = this.journal;
+        if (journal != null) {
+            journal.forEachPlanned(planner::reserve);
+        }
+        reportedCollisions = 0;
+        if (copyThreads > 1) {
+            copyExecutor = new CopyExecutor(copyThreads, streamsPerStore, storeStreams);
+        }
 
-            // Skip empty directories or directories without audio files
-            if (report.isEmpty() || report.getScannedFilesCount() == 0) {
-                continue;
-            }
+        fireOnSortStarted(null, outputDirectory, false);
+        return true;
+    }
 
-            // Build destination path
-            String artist = filterInvalidCharacters(report.getArtist());
-            String album = filterInvalidCharacters(report.getAlbum());
-            String year = filterInvalidCharacters(report.getYear());
-            String albumFolder = buildAlbumFolderName(album, report);
+    /**
+     * Copy the files of one scanned directory to its destination.
+     * Empty directories and directories without audio files are skipped.
+     */
+    public void sortDirectory(DirectoryReport report) {
+        if (cancelled.get()) {
+            return;
+        }
 
-            Path destArtistDir = outputDirectory.resolve(artist);
-            Path destAlbumDir = destArtistDir.resolve("[" + year + "] " + albumFolder);
-            report.setDestinationPath(destAlbumDir);
+        // Skip empty directories or directories without audio files
+        if (!DestinationPlanner.isSorted(report)) {
+            return;
+        }
 
-            // Create destination and copy files
+        DestinationPlanner.Plan plan;
+        try {
+            plan = planner.get(report);
+        } catch (DestinationPlanner.CollisionException e) {
+            reportCollisions();
+            fireOnError("Sort stopped: " + e.getMessage(), null);
+            cancel();
+            return;
+        }
+        reportCollisions();
+        Path destAlbumDir = plan.destination;
+        report.setDestinationPath(destAlbumDir);
+
+        // Directory fully copied by the run being resumed
+        SortJournal journal = this.journal;
+        boolean resumed = plan.failure == null && journal != null && journal.isDirectoryCompleted(report.getPath(), destAlbumDir);
+
+        // Create destination (unless planned up front) and copy files
+        if (plan.failure != null) {
+            fireOnError(plan.failure + ": " + report.getPath(), null);
+        } else if (plan.createError != null) {
+            fireOnError("Failed to create destination directory: " + destAlbumDir, plan.createError);
+            return;
+        } else if (!resumed && !plan.created) {
             try {
                 Files.createDirectories(destAlbumDir);
             } catch (IOException e) {
                 fireOnError("Failed to create destination directory: " + destAlbumDir, e);
-                continue;
+                return;
             }
+        }
 
-            copyFiles(report.getPath().toFile(), destAlbumDir, report);
+        copyFiles(plan, report.getPath(), report, resumed);
 
-            fireOnDirectoryCompleted(report);
+        if (journal != null && !resumed && !cancelled.get() && report.getErrorCount() == 0) {
+            writeJournal(j -> j.directoryCompleted(report.getPath(), destAlbumDir));
         }
 
-        fireOnSortCompleted(scanResults);
-        return scanResults;
+        fireOnDirectoryCompleted(report);
     }
 
-    private String buildAlbumFolderName(String album, DirectoryReport report) {
-        StringBuilder sb = new StringBuilder(album);
-
-        if (report.getFormat() != null) {
-            sb.append(" - [").append(report.getFormat());
+    /**
+     * Finish a sort started with {@link #begin}.
+     */
+    public void complete(RunTotals totals) {
+        if (copyExecutor != null) {
+            copyExecutor.close();
+            copyExecutor = null;
+        }
+        fireOnSortCompleted(totals);
+    }
 
-            if (report.isVariableBitrate()) {
-                sb.append(" VBR");
+    private void copyFiles(DestinationPlanner.Plan plan, Path sourceDir, DirectoryReport report, boolean resumed) {
+        Path destDir = plan.destination;
+        int count = report.getSourceFileCount();
+        List<FileReport> fileReports = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (cancelled.get()) {
+                break;
             }
 
-            if (report.getBitrate() != null) {
-                if (report.isVariableBitrate()) {
-                    sb.append(" ~");
-                } else {
-                    sb.append(" ");
-                }
-                sb.append(report.getBitrate()).append(" kBps");
+            String name = report.getSourceFileName(i);
+            Path source = sourceDir.resolve(name);
+            Path dest = destDir.resolve(name);
+
+            FileReport fileReport = new FileReport(source, report.getSourceFileSize(i), report.getSourceFileModified(i));
+            fileReport.setDestination(dest);
+            report.addFile(fileReport);
+
+            if (resumed) {
+                skipFile(fileReport);
+                continue;
+            }
+            if (plan.failure != null) {
+                fileReport.markFailed(plan.failure);
+                fireOnFileCopyFailed(fileReport);
+                processedFiles.incrementAndGet();
+                continue;
+            }
+            if (plan.skipped != null && plan.skipped[i]) {
+                // Left out on purpose by the SKIP policy, not a failure
+                fileReport.setErrorMessage("Destination already used by another source file");
+                skipFile(fileReport);
+                continue;
+            }
+            if (journal != null) {
+                writeJournal(j -> j.planned(source, dest));
             }
 
-            if (report.getSampleRate() != null) {
-                sb.append(" ").append(report.getSampleRate()).append(" kHz");
+            if (copyExecutor == null) {
+                copyFile(fileReport);
+            } else {
+                fileReports.add(fileReport);
             }
+        }
 
-            sb.append("]");
+        if (copyExecutor != null) {
+            copyExecutor.copyAll(fileReports, sourceDir, destDir, this::copyFile);
         }
+    }
 
-        return sb.toString();
+    /**
+     * Warn about the destination collisions found since the last call.
+     */
+    private void reportCollisions() {
+        List<String> collisions = planner.getCollisions();
+        for (; reportedCollisions < collisions.size(); reportedCollisions++) {
+            fireOnWarning("Destination collision: " + collisions.get(reportedCollisions));
+        }
     }
 
-    private void copyFiles(File sourceDir, Path destDir, DirectoryReport report) {
-        File[] files = sourceDir.listFiles(File::isFile);
-        if (files == null) return;
+    /**
+     * Copy one file and record the outcome in its report.
+     * Called from the copy threads when copying in parallel.
+     */
+    private void copyFile(FileReport fileReport) {
+        if (cancelled.get()) {
+            return;
+        }
+
+        Path source = fileReport.getSource();
+        Path dest = fileReport.getDestination();
 
-        for (File file : files) {
-            if (cancelled.get()) {
-                break;
+        try {
+            if (isResumed(fileReport) || (skipUnchanged && isUnchanged(fileReport))) {
+                skipFile(fileReport);
+                return;
             }
+        } catch (IOException e) {
+            // Not comparable; copy it again
+        }
 
-            Path source = file.toPath();
-            Path dest = destDir.resolve(file.getName());
+        fireOnFileCopyStarted(source, dest);
+        Instant start = Instant.now();
 
-            FileReport fileReport = new FileReport(source);
-            fileReport.setDestination(dest);
-            report.addFile(fileReport);
+        try {
+            StreamDigest digest = checksumAlgorithm != null ? checksumAlgorithm.newDigest() : null;
+            OrganizeMode used = organizer.organize(source, dest, new FileProgress(source), digest);
+            if (digest != null) {
+                fileReport.setChecksum(checksum(dest, digest));
+            }
+            if (skipUnchanged && used == OrganizeMode.COPY) {
+                Files.setLastModifiedTime(dest, FileTime.fromMillis(fileReport.getLastModified()));
+            }
+            Duration duration = Duration.between(start, Instant.now());
+            fileReport.markCopied(dest, duration, used);
+            if (journal != null) {
+                writeJournal(j -> j.completed(source, dest));
+            }
+            fireOnFileCopied(fileReport);
+            fireOnCopyThroughput(bytesCopied.addAndGet(fileReport.getSizeBytes()));
+        } catch (Exception e) {
+            fileReport.markFailed(e.getMessage());
+            fireOnFileCopyFailed(fileReport);
+        }
 
-            fireOnFileCopyStarted(source, dest);
-            Instant start = Instant.now();
+        processedFiles.incrementAndGet();
+    }
 
-            try {
-                Files.copy(source, dest, REPLACE_EXISTING);
-                Duration duration = Duration.between(start, Instant.now());
-                fileReport.markCopied(dest, duration);
-                fireOnFileCopied(fileReport);
-            } catch (Exception e) {
-                fileReport.markFailed(e.getMessage());
-                fireOnFileCopyFailed(fileReport);
+    /**
+     * Checksum of a placed file. When no byte was streamed through the digest
+     * (links, renames, clones) the destination is read instead.
+     * @throws IOException if the destination is not the size copied, or
+     *         verification finds it differs
+     */
+    private String checksum(Path dest, StreamDigest digest) throws IOException {
+        if (digest.length() == 0) {
+            return DigestingCopy.digest(dest, checksumAlgorithm).hex();
+        }
+        long size = Files.size(dest);
+        if (digest.length() != size) {
+            throw new IOException("Copied " + digest.length() + " bytes but the destination has " + size);
+        }
+        String hex = digest.hex();
+        if (verifyChecksum) {
+            String written = DigestingCopy.digest(dest, checksumAlgorithm).hex();
+            if (!written.equals(hex)) {
+                throw new IOException("Checksum mismatch after copy: " + hex + " != " + written);
             }
+        }
+        return hex;
+    }
+
+    /**
+     * Forwards the progress of one copy to the listeners and charges the
+     * bytes of each chunk to the throttle.
+     */
+    private class FileProgress implements CopyStrategy.Progress {
+        private final Path source;
+        private long reported;
 
-            processedFiles++;
+        FileProgress(Path source) {
+            this.source = source;
+        }
+
+        @Override
+        public void update(long bytesCopied, long totalBytes) {
+            throttle.acquire(bytesCopied - reported);
+            reported = bytesCopied;
+            fireOnFileCopyProgress(source, bytesCopied, totalBytes);
         }
     }
 
-    private String filterInvalidCharacters(String str) {
-        if (str == null) return "UNKNOWN";
+    private void skipFile(FileReport fileReport) {
+        fileReport.markSkipped(fileReport.getDestination());
+        fireOnFileSkipped(fileReport);
+        processedFiles.incrementAndGet();
+    }
 
-        // Replace invalid filesystem characters
-        str = str.replaceAll("[/?%*:|\"<>\\\\]", "_");
-        str = str.replace("/", "-");
-        str = str.replace("|", "-");
-        str = str.replace("?", "-");
-        str = str.replace("'", " ");
-        str = str.replace("*", "");
-        str = str.replace(">", ")");
-        str = str.replace("<", "(");
-        str = str.replace("\\", "-");
+    /**
+     * Whether the run being resumed already copied this file. The destination
+     * size is checked too, in case the copy itself did not reach the disk.
+     */
+    private boolean isResumed(FileReport fileReport) throws IOException {
+        SortJournal journal = this.journal;
+        if (journal == null || !journal.isCompleted(fileReport.getSource(), fileReport.getDestination())) {
+            return false;
+        }
+        try {
+            return Files.size(fileReport.getDestination()) == fileReport.getSizeBytes();
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
 
-        // Trim leading/trailing spaces and dots (Windows doesn't allow them)
-        str = str.trim();
-        while (str.endsWith(".")) {
-            str = str.substring(0, str.length() - 1).trim();
+    /**
+     * Append to the journal. After a write error the run continues without it.
+     */
+    private void writeJournal(JournalWrite write) {
+        SortJournal journal = this.journal;
+        if (journal == null) {
+            return;
         }
+        try {
+            write.to(journal);
+        } catch (IOException e) {
+            this.journal = null;
+            fireOnError("Failed to write sort journal, continuing without it: " + journal.getFile(), e);
+        }
+    }
 
-        return str;
+    @FunctionalInterface
+    private interface JournalWrite {
+        void to(SortJournal journal) throws IOException;
+    }
+
+    /**
+     * Whether the destination already holds this file: same size, and same
+     * modification time (or same content when comparing content).
+     */
+    private boolean isUnchanged(FileReport fileReport) throws IOException {
+        BasicFileAttributes dest;
+        try {
+            dest = Files.readAttributes(fileReport.getDestination(), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (!dest.isRegularFile() || dest.size() != fileReport.getSizeBytes()) {
+            return false;
+        }
+        if (compareContent) {
+            return Files.mismatch(fileReport.getSource(), fileReport.getDestination()) == -1;
+        }
+        return Math.abs(fileReport.getLastModified() - dest.lastModifiedTime().toMillis()) <= MODIFIED_TIME_WINDOW_MILLIS;
     }
 
     // Event firing methods
+    // Synchronized so listeners see one event at a time during parallel copies.
 
-    private void fireOnSortStarted(Path inputDir, Path outputDir, boolean debugMode) {
+    private synchronized void fireOnSortStarted(Path inputDir, Path outputDir, boolean debugMode) {
         for (SortProgressListener l : listeners) {
             l.onSortStarted(inputDir, outputDir, debugMode);
         }
     }
 
-    private void fireOnFileCopyStarted(Path source, Path dest) {
+    private synchronized void fireOnSortPlanned(List<DirectoryReport> reports) {
+        int files = 0;
+        long bytes = 0;
+        for (DirectoryReport report : reports) {
+            if (DestinationPlanner.isSorted(report)) {
+                files += report.getSourceFileCount();
+                bytes += report.getSourceBytes();
+            }
+        }
+        for (SortProgressListener l : listeners) {
+            l.onSortPlanned(files, bytes);
+        }
+    }
+
+    private synchronized void fireOnFileCopyStarted(Path source, Path dest) {
         for (SortProgressListener l : listeners) {
             l.onFileCopyStarted(source, dest);
         }
     }
 
-    private void fireOnFileCopied(FileReport report) {
+    private synchronized void fireOnFileCopyProgress(Path source, long bytesCopied, long totalBytes) {
+        for (SortProgressListener l : listeners) {
+            l.onFileCopyProgress(source, bytesCopied, totalBytes);
+        }
+    }
+
+    private synchronized void fireOnFileCopied(FileReport report) {
         for (SortProgressListener l : listeners) {
             l.onFileCopied(report);
         }
     }
 
-    private void fireOnFileCopyFailed(FileReport report) {
+    private synchronized void fireOnFileSkipped(FileReport fileReport) {
+        for (SortProgressListener l : listeners) {
+            l.onFileSkipped(fileReport);
+        }
+    }
+
+    private synchronized void fireOnFileCopyFailed(FileReport report) {
         for (SortProgressListener l : listeners) {
             l.onFileCopyFailed(report);
         }
     }
 
-    private void fireOnDirectoryCompleted(DirectoryReport report) {
+    private synchronized void fireOnCopyThroughput(long totalBytes) {
+        double seconds = Duration.between(copyStart, Instant.now()).toNanos() / 1e9;
+        double megabytesPerSecond = seconds > 0 ? totalBytes / (1024.0 * 1024.0) / seconds : 0;
+        double actual = throttle.getRecentRate();
+        double target = throttle.getLimit();
+        for (SortProgressListener l : listeners) {
+            l.onCopyThroughput(totalBytes, megabytesPerSecond);
+            l.onCopyRate(actual, target);
+        }
+    }
+
+    private synchronized void fireOnDirectoryCompleted(DirectoryReport report) {
         for (SortProgressListener l : listeners) {
             l.onDirectoryCompleted(report);
         }
     }
 
-    private void fireOnSortCompleted(RunTotals totals) {
+    private synchronized void fireOnSortCompleted(RunTotals totals) {
         for (SortProgressListener l : listeners) {
             l.onSortCompleted(totals);
         }
     }
 
-    private void fireOnError(String message, Exception e) {
+    private synchronized void fireOnWarning(String message) {
+        for (SortProgressListener l : listeners) {
+            l.onWarning(message);
+        }
+    }
+
+    private synchronized void fireOnError(String message, Exception e) {
+        errorReported = true;
         for (SortProgressListener l : listeners) {
             l.onError(message, e);
         }
@@ -0,0 +1,49 @@
+package io.github.warnotte.audiosorter.core;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression of the JSON report file. Reports with per-file checksums list
+ * every copied file and compress to a small fraction of their size.
+ */
+public enum ReportCompression {
+    /** Plain JSON. */
+    NONE(""),
+    /** gzip, readable by zcat and most tools. */
+    GZIP(".gz"),
+    /** Zstandard, faster to write and smaller than gzip. */
+    ZSTD(".zst");
+
+    // Deflater and zstd buffer, so each write to the file is large
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // zstd's own default level
+    private static final int ZSTD_LEVEL = 3;
+
+    private final String suffix;
+
+    ReportCompression(String suffix) {
+        this.suffix = suffix;
+    }
+
+    /**
+     * Suffix added to the name of a compressed report, such as ".gz".
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Stream compressing what is written to it into out; closing it closes out.
+     */
+    public OutputStream wrap(OutputStream out) throws IOException {
+        return switch (this) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, BUFFER_SIZE);
+            case ZSTD -> new ZstdOutputStream(out, ZSTD_LEVEL);
+        };
+    }
+}
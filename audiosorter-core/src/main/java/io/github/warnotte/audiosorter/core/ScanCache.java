@@ -0,0 +1,202 @@
+package io.github.warnotte.audiosorter.core;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk cache of the tag metadata extracted for each directory.
+ *
+ * An entry is reused when the directory's modification time and the name, size
+ * and modification time of each of its audio files are unchanged, so an
+ * incremental scan only reads tags for directories that changed.
+ * The cache file holds the entries of the last scan that used it.
+ */
+public class ScanCache {
+
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private ScanCache(Path file, Map<String, Entry> previous) {
+        this.file = file;
+        this.previous = previous;
+    }
+
+    /**
+     * Load a cache file. A missing, unreadable or outdated file gives an empty cache.
+     */
+    public static ScanCache load(Path file) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                CacheFile data = new Gson().fromJson(reader, CacheFile.class);
+                if (data != null && data.version == VERSION && data.directories != null) {
+                    entries.putAll(data.directories);
+                }
+            } catch (IOException | JsonParseException e) {
+                // Start from an empty cache
+            }
+        }
+        return new ScanCache(file, entries);
+    }
+
+    /**
+     * An empty cache that will be saved to the given file.
+     */
+    public static ScanCache empty(Path file) {
+        return new ScanCache(file, new HashMap<>());
+    }
+
+    /**
+     * Write the entries of the current scan, replacing the cache file.
+     */
+    public void save() throws IOException {
+        CacheFile data = new CacheFile();
+        data.version = VERSION;
+        data.directories = new HashMap<>(current);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            new GsonBuilder().disableHtmlEscaping().create().toJson(data, writer);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Restore the cached metadata of a directory into its report.
+     * @return true on a cache hit, false if the directory must be read again
+     */
+    boolean restore(DirectoryReport report, DirectoryListing listing) {
+        String key = keyOf(report.getPath());
+        Entry entry = previous.get(key);
+        if (entry == null || !entry.matches(listing)) {
+            misses.incrementAndGet();
+            return false;
+        }
+        entry.applyTo(report);
+        current.put(key, entry);
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Record the metadata extracted for a directory.
+     */
+    void store(DirectoryReport report, DirectoryListing listing) {
+        current.put(keyOf(report.getPath()), Entry.of(report, listing));
+    }
+
+    private static String keyOf(Path directory) {
+        return directory.toAbsolutePath().normalize().toString();
+    }
+
+    private static class CacheFile {
+        int version;
+        Map<String, Entry> directories;
+    }
+
+    private static class FileStamp {
+        String name;
+        long size;
+        long modified;
+    }
+
+    private static class Entry {
+        long modified;
+        List<FileStamp> files;
+
+        boolean tagFound;
+        String artist;
+        String album;
+        String year;
+        String format;
+        Integer bitrate;
+        Integer sampleRate;
+        boolean variableBitrate;
+
+        static Entry of(DirectoryReport report, DirectoryListing listing) {
+            Entry entry = new Entry();
+            entry.modified = listing.lastModified;
+            entry.files = new ArrayList<>(listing.audioFiles.size());
+            for (DirectoryListing.Entry audioFile : listing.audioFiles) {
+                FileStamp stamp = new FileStamp();
+                stamp.name = audioFile.path.getFileName().toString();
+                stamp.size = audioFile.size;
+                stamp.modified = audioFile.lastModified;
+                entry.files.add(stamp);
+            }
+            entry.tagFound = report.isTagFound();
+            entry.artist = report.getArtist();
+            entry.album = report.getAlbum();
+            entry.year = report.getYear();
+            entry.format = report.getFormat();
+            entry.bitrate = report.getBitrate();
+            entry.sampleRate = report.getSampleRate();
+            entry.variableBitrate = report.isVariableBitrate();
+            return entry;
+        }
+
+        boolean matches(DirectoryListing listing) {
+            if (modified != listing.lastModified || files == null
+                    || files.size() != listing.audioFiles.size()) {
+                return false;
+            }
+            for (int i = 0; i < files.size(); i++) {
+                FileStamp stamp = files.get(i);
+                DirectoryListing.Entry audioFile = listing.audioFiles.get(i);
+                if (stamp.size != audioFile.size || stamp.modified != audioFile.lastModified
+                        || !audioFile.path.getFileName().toString().equals(stamp.name)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void applyTo(DirectoryReport report) {
+            report.setTagFound(tagFound);
+            report.setArtist(artist);
+            report.setAlbum(album);
+            report.setYear(year);
+            report.setFormat(format);
+            report.setBitrate(bitrate);
+            report.setSampleRate(sampleRate);
+            report.setVariableBitrate(variableBitrate);
+        }
+    }
+}
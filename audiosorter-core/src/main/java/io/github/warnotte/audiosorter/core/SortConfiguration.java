@@ -1,6 +1,9 @@
 package io.github.warnotte.audiosorter.core;
 
+import io.github.warnotte.audiosorter.model.OrganizeMode;
+
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -8,13 +11,71 @@ import java.util.Set;
  */
 public class SortConfiguration {
 
+    public static final String DEFAULT_ARTIST_FOLDER_PATTERN = "{ARTIST}";
+    public static final String DEFAULT_ALBUM_FOLDER_PATTERN =
+        "[{YEAR}] {ALBUM}< - [{FORMAT}< {VBR}>< {BITRATE} kBps>< {SAMPLERATE} kHz>]>";
+
     private Path inputDirectory;
     private Path outputDirectory;
     private boolean debugMode = false;
 
-    // Naming pattern: {ARTIST}, {YEAR}, {ALBUM}, {FORMAT}, {BITRATE}, {SAMPLERATE}
-    private String artistFolderPattern = "{ARTIST}";
-    private String albumFolderPattern = "[{YEAR}] {ALBUM} - [{FORMAT} {BITRATE} kBps {SAMPLERATE} kHz]";
+    // Number of threads used to scan directories (1 = sequential scan)
+    private int scanThreads = 1;
+
+    // Number of threads reading tags while a single walker lists directories (0 = read inline)
+    private int tagReaderThreads = 0;
+
+    // Read MP3/FLAC/Ogg tags from file headers, falling back to jaudiotagger
+    private boolean fastTagReading = true;
+
+    // Copy each directory as soon as it is scanned instead of scanning everything first
+    private boolean pipelined = false;
+
+    // Directories buffered between the scan and copy stages in pipelined mode
+    private int pipelineQueueSize = 64;
+
+    // Number of files copied at once (1 = sequential copy)
+    private int copyThreads = 1;
+
+    // Concurrent copies per source/destination FileStore (rotational disks default to 1)
+    private int streamsPerStore = 4;
+    private Map<String, Integer> storeStreams = Map.of();
+
+    // How single files are copied (Files.copy or chunked FileChannel transfers)
+    private CopyStrategy copyStrategy = new FilesCopyStrategy();
+
+    // How files are placed in the output tree (copy, move, links, reflinks)
+    private OrganizeMode organizeMode = OrganizeMode.COPY;
+
+    // Skip destinations that already match their source (size + mtime, or content)
+    private boolean skipUnchanged = false;
+    private boolean compareContent = false;
+
+    // Journal of planned/completed copies (null = no journal), and whether to resume from it
+    private Path journalFile = null;
+    private boolean resume = false;
+
+    // Checksum computed while copying (null = none), and whether to re-read destinations to verify it
+    private ChecksumAlgorithm checksumAlgorithm = null;
+    private boolean verifyChecksum = false;
+
+    // Copy rate ceiling in MB/s (0 = unlimited)
+    private double bandwidthLimit = 0;
+
+    // Naming pattern: {ARTIST}, {YEAR}, {ALBUM}, {FORMAT}, {BITRATE}, {SAMPLERATE}, {VBR};
+    // <...> is only kept when its placeholders have values
+    private String artistFolderPattern = DEFAULT_ARTIST_FOLDER_PATTERN;
+    private String albumFolderPattern = DEFAULT_ALBUM_FOLDER_PATTERN;
+
+    // File name rules the created folders must follow
+    private FileNamePolicy fileNamePolicy = FileNamePolicy.PORTABLE;
+
+    // What to do when two source files map to the same destination
+    private CollisionPolicy collisionPolicy = CollisionPolicy.RENAME;
+
+    // JSON report: compression of the file, and whether it is written without indentation
+    private ReportCompression reportCompression = ReportCompression.NONE;
+    private boolean compactJson = false;
 
     // Supported extensions
     private Set<String> audioExtensions = Set.of("mp3", "flac", "ogg", "wav", "m4a", "aac", "wma");
@@ -56,6 +117,155 @@ public class SortConfiguration {
         this.debugMode = debugMode;
     }
 
+    public int getScanThreads() {
+        return scanThreads;
+    }
+
+    public void setScanThreads(int scanThreads) {
+        this.scanThreads = scanThreads;
+    }
+
+    public int getTagReaderThreads() {
+        return tagReaderThreads;
+    }
+
+    public void setTagReaderThreads(int tagReaderThreads) {
+        this.tagReaderThreads = tagReaderThreads;
+    }
+
+    public boolean isFastTagReading() {
+        return fastTagReading;
+    }
+
+    public void setFastTagReading(boolean fastTagReading) {
+        this.fastTagReading = fastTagReading;
+    }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    public int getPipelineQueueSize() {
+        return pipelineQueueSize;
+    }
+
+    public void setPipelineQueueSize(int pipelineQueueSize) {
+        this.pipelineQueueSize = pipelineQueueSize;
+    }
+
+    public int getCopyThreads() {
+        return copyThreads;
+    }
+
+    public void setCopyThreads(int copyThreads) {
+        this.copyThreads = copyThreads;
+    }
+
+    public int getStreamsPerStore() {
+        return streamsPerStore;
+    }
+
+    public void setStreamsPerStore(int streamsPerStore) {
+        this.streamsPerStore = streamsPerStore;
+    }
+
+    public Map<String, Integer> getStoreStreams() {
+        return storeStreams;
+    }
+
+    /**
+     * Per-FileStore concurrent copy limits, keyed by FileStore name (e.g. /dev/sdb1 or a volume label).
+     */
+    public void setStoreStreams(Map<String, Integer> storeStreams) {
+        this.storeStreams = Map.copyOf(storeStreams);
+    }
+
+    public CopyStrategy getCopyStrategy() {
+        return copyStrategy;
+    }
+
+    public void setCopyStrategy(CopyStrategy copyStrategy) {
+        this.copyStrategy = copyStrategy;
+    }
+
+    public OrganizeMode getOrganizeMode() {
+        return organizeMode;
+    }
+
+    public void setOrganizeMode(OrganizeMode organizeMode) {
+        this.organizeMode = organizeMode;
+    }
+
+    public boolean isSkipUnchanged() {
+        return skipUnchanged;
+    }
+
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    public boolean isCompareContent() {
+        return compareContent;
+    }
+
+    public void setCompareContent(boolean compareContent) {
+        this.compareContent = compareContent;
+    }
+
+    public Path getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     * Journal of the sort, used to resume it if interrupted (null for none).
+     * The journal and the scan cache written next to it are removed once a
+     * sort completes without errors.
+     */
+    public void setJournalFile(Path journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    public ChecksumAlgorithm getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    public void setChecksumAlgorithm(ChecksumAlgorithm checksumAlgorithm) {
+        this.checksumAlgorithm = checksumAlgorithm;
+    }
+
+    public boolean isVerifyChecksum() {
+        return verifyChecksum;
+    }
+
+    public void setVerifyChecksum(boolean verifyChecksum) {
+        this.verifyChecksum = verifyChecksum;
+    }
+
+    public double getBandwidthLimit() {
+        return bandwidthLimit;
+    }
+
+    public void setBandwidthLimit(double bandwidthLimit) {
+        this.bandwidthLimit = bandwidthLimit;
+    }
+
+    /**
+     * Pattern of the artist folders. Placeholders: {ARTIST}, {ALBUM}, {YEAR},
+     * {FORMAT}, {BITRATE} (prefixed with "~" for VBR), {SAMPLERATE}, {VBR}.
+     * A segment in &lt;...&gt; is dropped when one of its placeholders has no value.
+     */
     public String getArtistFolderPattern() {
         return artistFolderPattern;
     }
@@ -72,6 +282,38 @@ public class SortConfiguration {
         this.albumFolderPattern = albumFolderPattern;
     }
 
+    public FileNamePolicy getFileNamePolicy() {
+        return fileNamePolicy;
+    }
+
+    public void setFileNamePolicy(FileNamePolicy fileNamePolicy) {
+        this.fileNamePolicy = fileNamePolicy;
+    }
+
+    public CollisionPolicy getCollisionPolicy() {
+        return collisionPolicy;
+    }
+
+    public void setCollisionPolicy(CollisionPolicy collisionPolicy) {
+        this.collisionPolicy = collisionPolicy;
+    }
+
+    public ReportCompression getReportCompression() {
+        return reportCompression;
+    }
+
+    public void setReportCompression(ReportCompression reportCompression) {
+        this.reportCompression = reportCompression;
+    }
+
+    public boolean isCompactJson() {
+        return compactJson;
+    }
+
+    public void setCompactJson(boolean compactJson) {
+        this.compactJson = compactJson;
+    }
+
     public Set<String> getAudioExtensions() {
         return audioExtensions;
     }
@@ -123,5 +365,50 @@ public class SortConfiguration {
         if (!java.nio.file.Files.isDirectory(inputDirectory)) {
             throw new IllegalStateException("Input directory does not exist: " + inputDirectory);
         }
+        if (scanThreads < 1) {
+            throw new IllegalStateException("Scan threads must be at least 1: " + scanThreads);
+        }
+        if (tagReaderThreads < 0) {
+            throw new IllegalStateException("Tag reader threads must not be negative: " + tagReaderThreads);
+        }
+        if (pipelineQueueSize < 1) {
+            throw new IllegalStateException("Pipeline queue size must be at least 1: " + pipelineQueueSize);
+        }
+        if (copyStrategy == null) {
+            throw new IllegalStateException("Copy strategy is required");
+        }
+        if (organizeMode == null) {
+            throw new IllegalStateException("Organize mode is required");
+        }
+        if (resume && journalFile == null) {
+            throw new IllegalStateException("Resuming requires a journal file");
+        }
+        try {
+            FolderPattern.compile(artistFolderPattern);
+            FolderPattern.compile(albumFolderPattern);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        if (fileNamePolicy == null) {
+            throw new IllegalStateException("File name policy is required");
+        }
+        if (collisionPolicy == null) {
+            throw new IllegalStateException("Collision policy is required");
+        }
+        if (reportCompression == null) {
+            throw new IllegalStateException("Report compression is required");
+        }
+        if (bandwidthLimit < 0) {
+            throw new IllegalStateException("Bandwidth limit must be positive or 0: " + bandwidthLimit);
+        }
+        if (verifyChecksum && checksumAlgorithm == null) {
+            throw new IllegalStateException("Verifying copies requires a checksum algorithm");
+        }
+        if (copyThreads < 1) {
+            throw new IllegalStateException("Copy threads must be at least 1: " + copyThreads);
+        }
+        if (streamsPerStore < 1) {
+            throw new IllegalStateException("Streams per store must be at least 1: " + streamsPerStore);
+        }
     }
 }
@@ -0,0 +1,266 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only record of a sort run, so a killed run can be resumed.
+ *
+ * One tab-separated line per record: the files planned for each directory,
+ * each completed copy and each directory finished without errors. Records
+ * are synced to disk in batches (every {@value #SYNC_EVERY_RECORDS} records
+ * or once a second), so a crash loses at most the last batch and those files
+ * are simply copied again. A line cut short by the crash is ignored.
+ */
+public class SortJournal implements Closeable {
+
+    private static final String MAGIC = "AUDIOSORTER-JOURNAL 1";
+    private static final int SYNC_EVERY_RECORDS = 256;
+    private static final long SYNC_INTERVAL_NANOS = 1_000_000_000L;
+
+    private static final String PLAN = "PLAN";
+    private static final String DONE = "DONE";
+    private static final String DIR = "DIR";
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Writer writer;
+
+    // Source -> destination of the copies planned and completed by earlier runs
+    private final Map<String, String> plannedFiles;
+    private final Map<String, String> completedFiles;
+    private final Map<String, String> completedDirectories;
+
+    private int unsynced = 0;
+    private long lastSync = System.nanoTime();
+
+    private SortJournal(Path file, FileChannel channel, Map<String, String> plannedFiles,
+                        Map<String, String> completedFiles, Map<String, String> completedDirectories) {
+        this.file = file;
+        this.channel = channel;
+        this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+        this.plannedFiles = plannedFiles;
+        this.completedFiles = completedFiles;
+        this.completedDirectories = completedDirectories;
+    }
+
+    /**
+     * Start a new journal, replacing any previous one.
+     */
+    public static SortJournal create(Path file, Path inputDirectory, Path outputDirectory) throws IOException {
+        createParent(file);
+        FileChannel channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+        SortJournal journal = new SortJournal(file, channel, new HashMap<>(), new HashMap<>(), new HashMap<>());
+        journal.append(MAGIC, inputDirectory.toAbsolutePath().toString(), outputDirectory.toAbsolutePath().toString());
+        journal.sync();
+        return journal;
+    }
+
+    /**
+     * Reopen the journal of an interrupted run and keep appending to it.
+     * A missing journal starts a new one.
+     * @throws IOException if the journal was written for other directories
+     */
+    public static SortJournal resume(Path file, Path inputDirectory, Path outputDirectory) throws IOException {
+        if (!Files.exists(file)) {
+            return create(file, inputDirectory, outputDirectory);
+        }
+
+        Map<String, String> plannedFiles = new HashMap<>();
+        Map<String, String> completedFiles = new HashMap<>();
+        Map<String, String> completedDirectories = new HashMap<>();
+        boolean complete = endsWithNewline(file);
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String[] header = split(reader.readLine());
+            if (header.length != 3 || !header[0].equals(MAGIC)) {
+                throw new IOException("Not a sort journal: " + file);
+            }
+            if (!header[1].equals(inputDirectory.toAbsolutePath().toString())
+                    || !header[2].equals(outputDirectory.toAbsolutePath().toString())) {
+                throw new IOException("Journal " + file + " was written for " + header[1] + " -> " + header[2]);
+            }
+
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                if (next == null && !complete) {
+                    // Last line cut short by the crash
+                    break;
+                }
+                String[] record = split(line);
+                if (record.length == 3 && record[0].equals(PLAN)) {
+                    plannedFiles.put(record[1], record[2]);
+                } else if (record.length == 3 && record[0].equals(DONE)) {
+                    completedFiles.put(record[1], record[2]);
+                } else if (record.length == 3 && record[0].equals(DIR)) {
+                    completedDirectories.put(record[1], record[2]);
+                }
+                line = next;
+            }
+        }
+
+        FileChannel channel = FileChannel.open(file, WRITE, APPEND);
+        if (!complete) {
+            // Start the next record on a fresh line
+            channel.write(ByteBuffer.wrap(new byte[] {'\n'}));
+        }
+        return new SortJournal(file, channel, plannedFiles, completedFiles, completedDirectories);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Number of copies completed by the runs being resumed.
+     */
+    public int getCompletedFileCount() {
+        return completedFiles.size();
+    }
+
+    /**
+     * Pass each source file planned by the runs being resumed, with its destination.
+     */
+    public void forEachPlanned(BiConsumer<Path, Path> action) {
+        plannedFiles.forEach((source, destination) -> action.accept(Path.of(source), Path.of(destination)));
+    }
+
+    /**
+     * Whether an earlier run copied this file to the same destination.
+     */
+    public boolean isCompleted(Path source, Path destination) {
+        return destination.toString().equals(completedFiles.get(source.toString()));
+    }
+
+    /**
+     * Whether an earlier run copied every file of this directory to the same destination.
+     */
+    public boolean isDirectoryCompleted(Path sourceDir, Path destinationDir) {
+        return destinationDir.toString().equals(completedDirectories.get(sourceDir.toString()));
+    }
+
+    public synchronized void planned(Path source, Path destination) throws IOException {
+        append(PLAN, source.toString(), destination.toString());
+    }
+
+    public synchronized void completed(Path source, Path destination) throws IOException {
+        append(DONE, source.toString(), destination.toString());
+    }
+
+    public synchronized void directoryCompleted(Path sourceDir, Path destinationDir) throws IOException {
+        append(DIR, sourceDir.toString(), destinationDir.toString());
+    }
+
+    private void append(String type, String first, String second) throws IOException {
+        writer.write(type);
+        writer.write('\t');
+        writer.write(escape(first));
+        writer.write('\t');
+        writer.write(escape(second));
+        writer.write('\n');
+
+        unsynced++;
+        if (unsynced >= SYNC_EVERY_RECORDS || System.nanoTime() - lastSync >= SYNC_INTERVAL_NANOS) {
+            sync();
+        }
+    }
+
+    /**
+     * Write buffered records and force them to disk.
+     */
+    public synchronized void sync() throws IOException {
+        writer.flush();
+        channel.force(false);
+        unsynced = 0;
+        lastSync = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static boolean endsWithNewline(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private static void createParent(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    // Paths may contain tabs or newlines; escape them so each record stays on one line
+
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String[] split(String line) {
+        if (line == null) {
+            return new String[0];
+        }
+        String[] fields = line.split("\t", -1);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = unescape(fields[i]);
+        }
+        return fields;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't' -> sb.append('\t');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    default -> sb.append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.zip.Checksum;
+
+/**
+ * Checksum computed over the bytes of a file as they are copied.
+ * Created by {@link ChecksumAlgorithm#newDigest()}; not thread-safe.
+ */
+public abstract class StreamDigest {
+
+    private long length;
+
+    /**
+     * Add the remaining bytes of the buffer; its position is left unchanged.
+     */
+    public final void update(ByteBuffer bytes) {
+        length += bytes.remaining();
+        digest(bytes.duplicate());
+    }
+
+    /**
+     * Number of bytes digested so far.
+     */
+    public final long length() {
+        return length;
+    }
+
+    /**
+     * The digest as lowercase hex.
+     */
+    public abstract String hex();
+
+    protected abstract void digest(ByteBuffer bytes);
+
+    static StreamDigest of(Checksum checksum, int hexDigits) {
+        return new StreamDigest() {
+            @Override
+            protected void digest(ByteBuffer bytes) {
+                checksum.update(bytes);
+            }
+
+            @Override
+            public String hex() {
+                String hex = HexFormat.of().toHexDigits(checksum.getValue());
+                return hex.substring(hex.length() - hexDigits);
+            }
+        };
+    }
+
+    static StreamDigest of(MessageDigest messageDigest) {
+        return new StreamDigest() {
+            @Override
+            protected void digest(ByteBuffer bytes) {
+                messageDigest.update(bytes);
+            }
+
+            @Override
+            public String hex() {
+                return HexFormat.of().formatHex(messageDigest.digest());
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one instance of the metadata strings that repeat across reports
+ * (artists, years, formats): a tag reader returns a new String for each
+ * file, and a library has far fewer distinct values than albums.
+ *
+ * Owned by one scanner and cleared when its scan ends, so the values of
+ * earlier scans are only kept by the reports that use them.
+ */
+final class StringPool {
+
+    // Past this size new values are no longer pooled, so a run over
+    // unusual metadata cannot grow the pool without bound
+    private static final int MAX_SIZE = 200_000;
+
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+
+    String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = pool.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (pool.size() >= MAX_SIZE) {
+            return value;
+        }
+        pooled = pool.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    void clear() {
+        pool.clear();
+    }
+}
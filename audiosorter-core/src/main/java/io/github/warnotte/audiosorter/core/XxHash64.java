@@ -0,0 +1,175 @@
+package io.github.warnotte.audiosorter.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.Checksum;
+
+/**
+ * Streaming xxHash64 (seed 0), following the reference XXH64 algorithm.
+ * The JDK has no xxHash and the project avoids a dependency for one function.
+ */
+final class XxHash64 implements Checksum {
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final byte[] buffer = new byte[32];
+    private int buffered;
+    private long totalLength;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+
+    XxHash64() {
+        reset();
+    }
+
+    @Override
+    public void update(int b) {
+        update(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void update(byte[] bytes, int offset, int length) {
+        totalLength += length;
+        int end = offset + length;
+
+        if (buffered > 0) {
+            int take = Math.min(32 - buffered, length);
+            System.arraycopy(bytes, offset, buffer, buffered, take);
+            buffered += take;
+            offset += take;
+            if (buffered < 32) {
+                return;
+            }
+            stripe(buffer, 0);
+            buffered = 0;
+        }
+
+        while (end - offset >= 32) {
+            stripe(bytes, offset);
+            offset += 32;
+        }
+
+        if (offset < end) {
+            System.arraycopy(bytes, offset, buffer, 0, end - offset);
+            buffered = end - offset;
+        }
+    }
+
+    /**
+     * Reads the stripes straight from the buffer, so direct buffers are not
+     * copied to an array first.
+     */
+    @Override
+    public void update(ByteBuffer bytes) {
+        ByteBuffer in = bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        bytes.position(bytes.limit());
+        totalLength += in.remaining();
+
+        if (buffered > 0) {
+            int take = Math.min(32 - buffered, in.remaining());
+            in.get(buffer, buffered, take);
+            buffered += take;
+            if (buffered < 32) {
+                return;
+            }
+            stripe(buffer, 0);
+            buffered = 0;
+        }
+
+        long a = v1;
+        long b = v2;
+        long c = v3;
+        long d = v4;
+        int position = in.position();
+        int limit = in.limit();
+        for (; limit - position >= 32; position += 32) {
+            a = round(a, in.getLong(position));
+            b = round(b, in.getLong(position + 8));
+            c = round(c, in.getLong(position + 16));
+            d = round(d, in.getLong(position + 24));
+        }
+        v1 = a;
+        v2 = b;
+        v3 = c;
+        v4 = d;
+
+        buffered = limit - position;
+        in.get(position, buffer, 0, buffered);
+    }
+
+    private void stripe(byte[] bytes, int offset) {
+        v1 = round(v1, (long) LONG.get(bytes, offset));
+        v2 = round(v2, (long) LONG.get(bytes, offset + 8));
+        v3 = round(v3, (long) LONG.get(bytes, offset + 16));
+        v4 = round(v4, (long) LONG.get(bytes, offset + 24));
+    }
+
+    @Override
+    public long getValue() {
+        long h;
+        if (totalLength >= 32) {
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = merge(h, v1);
+            h = merge(h, v2);
+            h = merge(h, v3);
+            h = merge(h, v4);
+        } else {
+            h = P5;
+        }
+        h += totalLength;
+
+        int i = 0;
+        for (; i + 8 <= buffered; i += 8) {
+            h ^= round(0, (long) LONG.get(buffer, i));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        if (i + 4 <= buffered) {
+            h ^= ((int) INT.get(buffer, i) & 0xFFFFFFFFL) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            i += 4;
+        }
+        for (; i < buffered; i++) {
+            h ^= (buffer[i] & 0xFFL) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+        }
+
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    @Override
+    public void reset() {
+        v1 = P1 + P2;
+        v2 = P2;
+        v3 = 0;
+        v4 = -P1;
+        buffered = 0;
+        totalLength = 0;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long merge(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * P1 + P4;
+    }
+}
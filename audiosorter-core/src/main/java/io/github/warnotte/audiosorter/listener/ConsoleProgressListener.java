@@ -27,6 +27,11 @@ public class ConsoleProgressListener implements SortProgressListener {
         logger.info("=========================================================");
     }
 
+    @Override
+    public void onSortPlanned(int files, long totalBytes) {
+        logger.info("To copy: {} files, {} MB", files, totalBytes / (1024 * 1024));
+    }
+
     @Override
     public void onDirectoryEntered(Path directory, int depth) {
         // Log at trace level to avoid too much noise
@@ -65,7 +70,16 @@ public class ConsoleProgressListener implements SortProgressListener {
 
     @Override
     public void onFileCopied(FileReport fileReport) {
-        logger.trace("Copied: {}", fileReport.getSource().getFileName());
+        logger.trace("Copied ({}): {}", fileReport.getOrganizeMode(), fileReport.getSource().getFileName());
+    }
+
+    @Override
+    public void onFileSkipped(FileReport fileReport) {
+        if (fileReport.getErrorMessage() != null) {
+            logger.info("Not copied: {} - {}", fileReport.getSource(), fileReport.getErrorMessage());
+        } else {
+            logger.trace("Unchanged: {}", fileReport.getSource().getFileName());
+        }
     }
 
     @Override
@@ -75,6 +89,20 @@ public class ConsoleProgressListener implements SortProgressListener {
             fileReport.getErrorMessage());
     }
 
+    @Override
+    public void onCopyThroughput(long bytesCopied, double megabytesPerSecond) {
+        logger.trace("Copy rate: {} MB/s ({} MB copied)",
+            String.format("%.1f", megabytesPerSecond), bytesCopied / (1024 * 1024));
+    }
+
+    @Override
+    public void onCopyRate(double actualMegabytesPerSecond, double targetMegabytesPerSecond) {
+        if (targetMegabytesPerSecond > 0) {
+            logger.trace("Copy rate: {} MB/s (limit {} MB/s)",
+                String.format("%.1f", actualMegabytesPerSecond), String.format("%.1f", targetMegabytesPerSecond));
+        }
+    }
+
     @Override
     public void onDirectoryCompleted(DirectoryReport report) {
         logger.debug("Directory completed: {} - Status: {}, Files: {}, Copied: {}, Errors: {}",
@@ -95,17 +123,32 @@ public class ConsoleProgressListener implements SortProgressListener {
     public void onSortCompleted(RunTotals totals) {
         logger.info("===================== RUN SUMMARY =====================");
         logger.info("Duration: {} seconds", totals.getTotalDuration().toSeconds());
+        if (totals.getCopyStartTime() != null) {
+            logger.info("Timeline: scan={} ms copy={} ms overlap={} ms",
+                totals.getTotalDuration().toMillis(),
+                totals.getCopyDuration().toMillis(),
+                totals.getStageOverlap().toMillis());
+        }
         logger.info("Directories: total={} ok={} noTag={} copyError={} empty={}",
             totals.getDirectoriesTotal(),
             totals.getOkDirs(),
             totals.getNoTagDirs(),
             totals.getCopyErrorDirs(),
             totals.getEmptyDirs());
-        logger.info("Files: scanned={} copied={} failed={}",
+        logger.info("Files: scanned={} copied={} unchanged={} failed={}",
             totals.getFilesSeen(),
             totals.getFilesCopied(),
+            totals.getFilesSkipped(),
             totals.getFilesFailed());
+        var organizeModes = totals.getOrganizeModeCounts();
+        if (!organizeModes.isEmpty()) {
+            logger.info("Organize modes: {}", organizeModes);
+        }
         logger.info("Total bytes copied: {} MB", totals.getTotalBytesCopied() / (1024 * 1024));
+        if (!totals.getCopyDuration().isZero()) {
+            logger.info("Average copy rate: {} MB/s", String.format("%.1f",
+                totals.getTotalBytesCopied() / (1024.0 * 1024.0) / (totals.getCopyDuration().toMillis() / 1000.0)));
+        }
         logger.info("-------------------------------------------------------");
 
         // List directories without tags
@@ -20,6 +20,16 @@ public interface SortProgressListener {
      */
     default void onSortStarted(Path inputDir, Path outputDir, boolean debugMode) {}
 
+    /**
+     * Called once every destination is planned, before the first copy, with
+     * the totals to process; progress and remaining time can be measured
+     * against them. Not called when directories are sorted as the scan finds
+     * them, as the totals are not known in advance.
+     * @param files number of files to copy
+     * @param totalBytes their total size in bytes
+     */
+    default void onSortPlanned(int files, long totalBytes) {}
+
     /**
      * Called when entering a new directory for scanning.
      */
@@ -55,16 +65,40 @@ public interface SortProgressListener {
      */
     default void onFileCopyStarted(Path source, Path destination) {}
 
+    /**
+     * Called as a file copy advances. How often depends on the copy strategy;
+     * chunked strategies call it after each chunk.
+     */
+    default void onFileCopyProgress(Path source, long bytesCopied, long totalBytes) {}
+
     /**
      * Called when a file is successfully copied.
      */
     default void onFileCopied(FileReport fileReport) {}
 
+    /**
+     * Called when a file is not copied because the destination is already up to date.
+     */
+    default void onFileSkipped(FileReport fileReport) {}
+
     /**
      * Called when a file copy operation fails.
      */
     default void onFileCopyFailed(FileReport fileReport) {}
 
+    /**
+     * Called after each copied file with the aggregate copy rate since the sort started.
+     * @param bytesCopied total bytes copied so far
+     * @param megabytesPerSecond average rate over all copy streams, in MB/s
+     */
+    default void onCopyThroughput(long bytesCopied, double megabytesPerSecond) {}
+
+    /**
+     * Called with the copy rate over the last second and the configured
+     * ceiling, both in MB/s (target 0 when the rate is not limited).
+     */
+    default void onCopyRate(double actualMegabytesPerSecond, double targetMegabytesPerSecond) {}
+
     /**
      * Called when a directory processing is completed.
      */
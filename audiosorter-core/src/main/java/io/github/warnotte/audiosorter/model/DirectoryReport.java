@@ -7,6 +7,16 @@ import java.util.List;
 
 /**
  * Report for a single directory processing.
+ *
+ * Kept for every directory of a run, so it is stored compactly: file names
+ * relative to the directory instead of absolute paths, metadata strings that
+ * repeat across albums (artist, year, format) shared by the scanner, and
+ * primitive audio properties.
+ *
+ * File outcomes are counted as files change status, so the counts and the
+ * status are O(1). Once added to a {@link RunTotals}, every change that
+ * affects the totals is forwarded to it. Changes are synchronized on the
+ * report, as files of one directory may be copied by several threads.
  */
 public class DirectoryReport {
 
@@ -18,6 +28,9 @@ public class DirectoryReport {
         SKIPPED
     }
 
+    private static final String[] NO_NAMES = new String[0];
+    private static final long[] NO_VALUES = new long[0];
+
     private final Path path;
     private final int depth;
     private final List<FileReport> files = new ArrayList<>();
@@ -25,22 +38,34 @@ public class DirectoryReport {
     private boolean tagFound = false;
     private boolean empty = false;
     private boolean hasImageFile = false;
-    private String coverImagePath = null; // Path to first image file found
-    private String firstAudioFilePath = null; // Path to first audio file (for playback)
-    private List<String> audioFilePaths = new ArrayList<>(); // All audio file paths
+    private String coverImageName = null; // First image file found
+    private final List<String> audioFileNames = new ArrayList<>(); // Audio files, for playback
     private int scannedFilesCount = 0; // Number of audio files found (even in debug mode)
+    private long audioBytes = 0; // Total size of the audio files found
+    // Every regular file of the directory (all are copied), with the size and
+    // modification time read by the scan, so the sort needs no stat of its own
+    private String[] sourceFileNames = NO_NAMES;
+    private long[] sourceFileSizes = NO_VALUES;
+    private long[] sourceFileModified = NO_VALUES;
+    private long sourceBytes;
 
     // Extracted metadata
     private String artist;
     private String album;
     private String year;
     private String format;
-    private Integer bitrate;
-    private Integer sampleRate;
+    // 0 when unknown
+    private int bitrate;
+    private int sampleRate;
     private boolean variableBitrate;
 
     private Path destinationPath;
 
+    private int copiedCount;
+    private int skippedCount;
+    private int errorCount;
+    private RunTotals totals;
+
     public DirectoryReport(Path path, int depth) {
         this.path = path;
         this.depth = depth;
@@ -58,24 +83,36 @@ public class DirectoryReport {
         return Collections.unmodifiableList(files);
     }
 
-    public void addFile(FileReport file) {
+    public synchronized void addFile(FileReport file) {
+        Status previous = getStatus();
+        int previousCount = getFilesCount();
         files.add(file);
+        count(file.getStatus(), 1);
+        file.setDirectory(this);
+        if (totals != null) {
+            totals.fileChanged(null, null, file.getStatus(), file.getOrganizeMode(), file.getSizeBytes());
+        }
+        changed(previous, previousCount);
     }
 
     public boolean isTagFound() {
         return tagFound;
     }
 
-    public void setTagFound(boolean tagFound) {
+    public synchronized void setTagFound(boolean tagFound) {
+        Status previous = getStatus();
         this.tagFound = tagFound;
+        changed(previous, getFilesCount());
     }
 
     public boolean isEmpty() {
         return empty;
     }
 
-    public void setEmpty(boolean empty) {
+    public synchronized void setEmpty(boolean empty) {
+        Status previous = getStatus();
         this.empty = empty;
+        changed(previous, getFilesCount());
     }
 
     public boolean hasImageFile() {
@@ -86,35 +123,52 @@ public class DirectoryReport {
         this.hasImageFile = hasImageFile;
     }
 
+    /**
+     * Absolute path of the first image file found, or null.
+     */
     public String getCoverImagePath() {
-        return coverImagePath;
+        return coverImageName == null ? null : absolute(coverImageName);
     }
 
-    public void setCoverImagePath(String coverImagePath) {
-        this.coverImagePath = coverImagePath;
+    public String getCoverImageName() {
+        return coverImageName;
     }
 
-    public String getFirstAudioFilePath() {
-        return firstAudioFilePath;
+    public void setCoverImageName(String coverImageName) {
+        this.coverImageName = coverImageName;
     }
 
-    public void setFirstAudioFilePath(String firstAudioFilePath) {
-        this.firstAudioFilePath = firstAudioFilePath;
+    /**
+     * Absolute path of the first audio file (for playback), or null.
+     */
+    public String getFirstAudioFilePath() {
+        return audioFileNames.isEmpty() ? null : absolute(audioFileNames.get(0));
     }
 
+    /**
+     * Absolute paths of the audio files, built on each call.
+     */
     public List<String> getAudioFilePaths() {
-        return audioFilePaths;
+        List<String> paths = new ArrayList<>(audioFileNames.size());
+        for (String name : audioFileNames) {
+            paths.add(absolute(name));
+        }
+        return paths;
     }
 
-    public void setAudioFilePaths(List<String> audioFilePaths) {
-        this.audioFilePaths = audioFilePaths;
+    public List<String> getAudioFileNames() {
+        return Collections.unmodifiableList(audioFileNames);
     }
 
-    public void addAudioFilePath(String path) {
-        this.audioFilePaths.add(path);
-        if (this.firstAudioFilePath == null) {
-            this.firstAudioFilePath = path;
-        }
+    /**
+     * @param name file name of an audio file of this directory
+     */
+    public void addAudioFileName(String name) {
+        audioFileNames.add(name);
+    }
+
+    private String absolute(String name) {
+        return path.toAbsolutePath().resolve(name).toString();
     }
 
     public String getArtist() {
@@ -149,20 +203,26 @@ public class DirectoryReport {
         this.format = format;
     }
 
+    /**
+     * @return the bitrate in kbps, or null if unknown
+     */
     public Integer getBitrate() {
-        return bitrate;
+        return bitrate > 0 ? bitrate : null;
     }
 
     public void setBitrate(Integer bitrate) {
-        this.bitrate = bitrate;
+        this.bitrate = bitrate != null ? bitrate : 0;
     }
 
+    /**
+     * @return the sample rate in Hz, or null if unknown
+     */
     public Integer getSampleRate() {
-        return sampleRate;
+        return sampleRate > 0 ? sampleRate : null;
     }
 
     public void setSampleRate(Integer sampleRate) {
-        this.sampleRate = sampleRate;
+        this.sampleRate = sampleRate != null ? sampleRate : 0;
     }
 
     public boolean isVariableBitrate() {
@@ -185,8 +245,64 @@ public class DirectoryReport {
         return scannedFilesCount;
     }
 
-    public void setScannedFilesCount(int scannedFilesCount) {
+    public synchronized void setScannedFilesCount(int scannedFilesCount) {
+        int previousCount = getFilesCount();
         this.scannedFilesCount = scannedFilesCount;
+        changed(getStatus(), previousCount);
+    }
+
+    public long getAudioBytes() {
+        return audioBytes;
+    }
+
+    public void setAudioBytes(long audioBytes) {
+        this.audioBytes = audioBytes;
+    }
+
+    /**
+     * Record the regular files of the directory as listed by the scan.
+     * @param names file names, relative to the directory
+     * @param sizes sizes in bytes
+     * @param lastModified modification times in milliseconds since the epoch
+     */
+    public void setSourceFiles(String[] names, long[] sizes, long[] lastModified) {
+        if (names.length != sizes.length || names.length != lastModified.length) {
+            throw new IllegalArgumentException("Source file arrays differ in length");
+        }
+        long total = 0;
+        for (long size : sizes) {
+            total += size;
+        }
+        this.sourceFileNames = names;
+        this.sourceFileSizes = sizes;
+        this.sourceFileModified = lastModified;
+        this.sourceBytes = total;
+    }
+
+    /**
+     * Number of regular files recorded by the scan (0 if the directory was not listed).
+     */
+    public int getSourceFileCount() {
+        return sourceFileNames.length;
+    }
+
+    public String getSourceFileName(int index) {
+        return sourceFileNames[index];
+    }
+
+    public long getSourceFileSize(int index) {
+        return sourceFileSizes[index];
+    }
+
+    public long getSourceFileModified(int index) {
+        return sourceFileModified[index];
+    }
+
+    /**
+     * Total size of the regular files recorded by the scan.
+     */
+    public long getSourceBytes() {
+        return sourceBytes;
     }
 
     public int getFilesCount() {
@@ -194,28 +310,77 @@ public class DirectoryReport {
         return scannedFilesCount > 0 ? scannedFilesCount : files.size();
     }
 
-    public long getCopiedCount() {
-        return files.stream()
-            .filter(f -> f.getStatus() == FileReport.Status.COPIED)
-            .count();
+    public synchronized long getCopiedCount() {
+        return copiedCount;
     }
 
-    public long getErrorCount() {
-        return files.stream()
-            .filter(f -> f.getStatus() == FileReport.Status.COPY_FAILED)
-            .count();
+    public synchronized long getSkippedCount() {
+        return skippedCount;
     }
 
-    public Status getStatus() {
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    public synchronized Status getStatus() {
         if (empty) {
             return Status.EMPTY;
         }
         if (!tagFound) {
             return Status.NO_TAG;
         }
-        if (getErrorCount() > 0) {
+        if (errorCount > 0) {
             return Status.COPY_ERROR;
         }
         return Status.OK;
     }
+
+    /**
+     * Start forwarding changes to the totals, after adding the current counts.
+     */
+    synchronized void attach(RunTotals totals) {
+        contributeTo(totals);
+        this.totals = totals;
+    }
+
+    /**
+     * Add the current counts of this report and its files to the totals.
+     */
+    synchronized void contributeTo(RunTotals totals) {
+        totals.directoryChanged(null, getStatus(), 0, getFilesCount());
+        for (FileReport file : files) {
+            totals.fileChanged(null, null, file.getStatus(), file.getOrganizeMode(), file.getSizeBytes());
+        }
+    }
+
+    /**
+     * Status change of one of the files, requested by the file.
+     */
+    synchronized void fileChanged(FileReport file, FileReport.Status status, OrganizeMode mode) {
+        Status previous = getStatus();
+        FileReport.Status previousFileStatus = file.getStatus();
+        OrganizeMode previousMode = file.getOrganizeMode();
+        count(previousFileStatus, -1);
+        count(status, 1);
+        file.applyStatus(status, mode);
+        if (totals != null) {
+            totals.fileChanged(previousFileStatus, previousMode, status, mode, file.getSizeBytes());
+        }
+        changed(previous, getFilesCount());
+    }
+
+    private void count(FileReport.Status status, int delta) {
+        switch (status) {
+            case COPIED -> copiedCount += delta;
+            case SKIPPED -> skippedCount += delta;
+            case COPY_FAILED -> errorCount += delta;
+            default -> { }
+        }
+    }
+
+    private void changed(Status previous, int previousFilesCount) {
+        if (totals != null) {
+            totals.directoryChanged(previous, getStatus(), previousFilesCount, getFilesCount());
+        }
+    }
 }
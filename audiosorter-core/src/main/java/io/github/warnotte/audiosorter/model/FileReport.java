@@ -5,6 +5,10 @@ import java.time.Duration;
 
 /**
  * Report for a single file operation.
+ *
+ * Once added to its directory report, the file keeps only its name: the
+ * source and (when it is in the directory destination) the destination
+ * paths are rebuilt from the directory on request.
  */
 public class FileReport {
 
@@ -15,32 +19,43 @@ public class FileReport {
         SKIPPED
     }
 
-    private final Path source;
+    // Full paths, until they can be derived from the directory
+    private Path source;
     private Path destination;
+    private String name;
+    private boolean destinationInDirectory;
     private Status status = Status.PENDING;
     private String errorMessage;
-    private long sizeBytes;
-    private Duration copyDuration;
-
-    public FileReport(Path source) {
+    private final long sizeBytes;
+    private final long lastModified;
+    private long copyNanos = -1;
+    private OrganizeMode organizeMode;
+    private String checksum;
+    // Directory whose counters follow this file's status (null until added)
+    private DirectoryReport directory;
+
+    /**
+     * @param sizeBytes size of the source, as listed by the scan
+     * @param lastModified modification time of the source in milliseconds, as listed by the scan
+     */
+    public FileReport(Path source, long sizeBytes, long lastModified) {
         this.source = source;
-        try {
-            this.sizeBytes = java.nio.file.Files.size(source);
-        } catch (Exception e) {
-            this.sizeBytes = 0;
-        }
+        this.sizeBytes = sizeBytes;
+        this.lastModified = lastModified;
     }
 
     public Path getSource() {
-        return source;
+        return source != null ? source : directory.getPath().resolve(name);
     }
 
     public Path getDestination() {
-        return destination;
+        return destinationInDirectory ? directory.getDestinationPath().resolve(name) : destination;
     }
 
     public void setDestination(Path destination) {
         this.destination = destination;
+        this.destinationInDirectory = false;
+        compact();
     }
 
     public Status getStatus() {
@@ -48,7 +63,7 @@ public class FileReport {
     }
 
     public void setStatus(Status status) {
-        this.status = status;
+        changeStatus(status, organizeMode);
     }
 
     public String getErrorMessage() {
@@ -63,22 +78,107 @@ public class FileReport {
         return sizeBytes;
     }
 
+    /**
+     * Modification time of the source in milliseconds since the epoch.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
     public Duration getCopyDuration() {
-        return copyDuration;
+        return copyNanos < 0 ? null : Duration.ofNanos(copyNanos);
     }
 
     public void setCopyDuration(Duration copyDuration) {
-        this.copyDuration = copyDuration;
+        this.copyNanos = copyDuration == null ? -1 : copyDuration.toNanos();
+    }
+
+    /**
+     * How the file was actually placed; may differ from the requested mode
+     * when the filesystem forced a fallback to a copy.
+     */
+    public OrganizeMode getOrganizeMode() {
+        return organizeMode;
+    }
+
+    /**
+     * Hex digest of the copied file, when the sort computes checksums.
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
     }
 
     public void markCopied(Path destination, Duration duration) {
-        this.destination = destination;
-        this.status = Status.COPIED;
-        this.copyDuration = duration;
+        markCopied(destination, duration, OrganizeMode.COPY);
+    }
+
+    public void markCopied(Path destination, Duration duration, OrganizeMode mode) {
+        setDestination(destination);
+        setCopyDuration(duration);
+        changeStatus(Status.COPIED, mode);
+    }
+
+    /**
+     * The destination already holds this file from an earlier run.
+     */
+    public void markSkipped(Path destination) {
+        setDestination(destination);
+        changeStatus(Status.SKIPPED, organizeMode);
     }
 
     public void markFailed(String error) {
-        this.status = Status.COPY_FAILED;
         this.errorMessage = error;
+        changeStatus(Status.COPY_FAILED, organizeMode);
+    }
+
+    void setDirectory(DirectoryReport directory) {
+        this.directory = directory;
+        compact();
+    }
+
+    /**
+     * Drop the paths that can be rebuilt from the directory report.
+     */
+    private void compact() {
+        DirectoryReport directory = this.directory;
+        if (directory == null) {
+            return;
+        }
+        if (source != null && directory.getPath().equals(source.getParent())) {
+            name = source.getFileName().toString();
+            source = null;
+        }
+        if (name != null && destination != null && destination.getParent() != null
+                && destination.getParent().equals(directory.getDestinationPath())
+                && destination.getFileName().toString().equals(name)) {
+            destination = null;
+            destinationInDirectory = true;
+        }
+    }
+
+    /**
+     * Update the status and let the directory (and through it the run
+     * totals) adjust their counters.
+     */
+    private void changeStatus(Status status, OrganizeMode mode) {
+        DirectoryReport directory = this.directory;
+        if (directory == null) {
+            this.status = status;
+            this.organizeMode = mode;
+            return;
+        }
+        directory.fileChanged(this, status, mode);
+    }
+
+    /**
+     * Called by the directory with its lock held.
+     */
+    void applyStatus(Status status, OrganizeMode mode) {
+        this.status = status;
+        this.organizeMode = mode;
     }
 }
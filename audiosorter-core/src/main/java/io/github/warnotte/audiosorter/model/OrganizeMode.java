@@ -0,0 +1,17 @@
+package io.github.warnotte.audiosorter.model;
+
+/**
+ * How a file is placed in the sorted tree.
+ */
+public enum OrganizeMode {
+    /** Copy the bytes; the source is left untouched. */
+    COPY,
+    /** Rename into place (atomic on the same FileStore), otherwise copy then delete the source. */
+    MOVE,
+    /** Hard link to the source; needs the same FileStore. */
+    HARDLINK,
+    /** Symbolic link to the absolute source path. */
+    SYMLINK,
+    /** Copy-on-write clone (btrfs, XFS, APFS); shares blocks with the source. */
+    REFLINK
+}
@@ -3,26 +3,109 @@ package io.github.warnotte.audiosorter.model;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Aggregated totals for a complete sorting run.
+ * Safe to share between the parallel scan and copy workers.
+ *
+ * Reports added with {@link #addDirectoryReport} are kept until the run ends,
+ * and forward every later change (tags found, files copied...) to the totals.
+ * Reports passed to {@link #countDirectoryReport} (streaming scans) are added
+ * to the counters once; they are included in the totals but not in the
+ * report lists. Counters are LongAdders updated by the scan and copy threads,
+ * so the summary getters are O(1).
  */
 public class RunTotals {
 
     private final List<DirectoryReport> directoryReports = new ArrayList<>();
     private Instant startTime;
     private Instant endTime;
+    private Instant copyStartTime;
+    private Instant copyEndTime;
     private long totalFilesCount = 0;
     private long nonAudioFilesCount = 0;
 
+    private final LongAdder directories = new LongAdder();
+    private final Map<DirectoryReport.Status, LongAdder> directoriesByStatus = adders(DirectoryReport.Status.class);
+    private final LongAdder filesSeen = new LongAdder();
+    private final Map<FileReport.Status, LongAdder> filesByStatus = adders(FileReport.Status.class);
+    private final LongAdder bytesCopied = new LongAdder();
+    private final Map<OrganizeMode, LongAdder> filesByOrganizeMode = adders(OrganizeMode.class);
+
+    private static <E extends Enum<E>> Map<E, LongAdder> adders(Class<E> type) {
+        Map<E, LongAdder> adders = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            adders.put(value, new LongAdder());
+        }
+        return adders;
+    }
+
     public void addDirectoryReport(DirectoryReport report) {
-        directoryReports.add(report);
+        synchronized (this) {
+            directoryReports.add(report);
+        }
+        directories.increment();
+        report.attach(this);
+    }
+
+    /**
+     * Add a completed report to the totals without keeping it.
+     */
+    public void countDirectoryReport(DirectoryReport report) {
+        directories.increment();
+        report.contributeTo(this);
+    }
+
+    /**
+     * A kept report changed status or file count (from null when first counted).
+     */
+    void directoryChanged(DirectoryReport.Status from, DirectoryReport.Status to, int fromFiles, int toFiles) {
+        if (from != to) {
+            if (from != null) {
+                directoriesByStatus.get(from).decrement();
+            }
+            directoriesByStatus.get(to).increment();
+        }
+        if (fromFiles != toFiles) {
+            filesSeen.add(toFiles - fromFiles);
+        }
     }
 
+    /**
+     * A file of a kept report changed status (from null when first counted).
+     */
+    void fileChanged(FileReport.Status from, OrganizeMode fromMode,
+                     FileReport.Status to, OrganizeMode toMode, long sizeBytes) {
+        if (from != null) {
+            filesByStatus.get(from).decrement();
+            if (from == FileReport.Status.COPIED) {
+                bytesCopied.add(-sizeBytes);
+                if (fromMode != null) {
+                    filesByOrganizeMode.get(fromMode).decrement();
+                }
+            }
+        }
+        filesByStatus.get(to).increment();
+        if (to == FileReport.Status.COPIED) {
+            bytesCopied.add(sizeBytes);
+            if (toMode != null) {
+                filesByOrganizeMode.get(toMode).increment();
+            }
+        }
+    }
+
+    /**
+     * Copy of the reports kept so far, taken under the lock they are added
+     * with, so it can be read while a pipelined sort is still adding reports.
+     */
     public List<DirectoryReport> getDirectoryReports() {
-        return Collections.unmodifiableList(directoryReports);
+        synchronized (this) {
+            return List.copyOf(directoryReports);
+        }
     }
 
     public void setStartTime(Instant startTime) {
@@ -48,58 +131,80 @@ public class RunTotals {
         return Duration.between(startTime, endTime);
     }
 
+    public void setCopyStartTime(Instant copyStartTime) {
+        this.copyStartTime = copyStartTime;
+    }
+
+    public void setCopyEndTime(Instant copyEndTime) {
+        this.copyEndTime = copyEndTime;
+    }
+
+    public Instant getCopyStartTime() {
+        return copyStartTime;
+    }
+
+    public Instant getCopyEndTime() {
+        return copyEndTime;
+    }
+
+    public Duration getCopyDuration() {
+        if (copyStartTime == null || copyEndTime == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(copyStartTime, copyEndTime);
+    }
+
+    /**
+     * Time during which the scan and copy stages ran at the same time
+     * (zero unless the run was pipelined).
+     */
+    public Duration getStageOverlap() {
+        if (startTime == null || endTime == null || copyStartTime == null || copyEndTime == null) {
+            return Duration.ZERO;
+        }
+        Instant from = startTime.isAfter(copyStartTime) ? startTime : copyStartTime;
+        Instant to = endTime.isBefore(copyEndTime) ? endTime : copyEndTime;
+        return from.isBefore(to) ? Duration.between(from, to) : Duration.ZERO;
+    }
+
     public int getDirectoriesTotal() {
-        return directoryReports.size();
+        return directories.intValue();
     }
 
     public long getOkDirs() {
-        return directoryReports.stream()
-            .filter(r -> r.getStatus() == DirectoryReport.Status.OK)
-            .count();
+        return directoriesByStatus.get(DirectoryReport.Status.OK).sum();
     }
 
     public long getNoTagDirs() {
-        return directoryReports.stream()
-            .filter(r -> r.getStatus() == DirectoryReport.Status.NO_TAG)
-            .count();
+        return directoriesByStatus.get(DirectoryReport.Status.NO_TAG).sum();
     }
 
     public long getCopyErrorDirs() {
-        return directoryReports.stream()
-            .filter(r -> r.getStatus() == DirectoryReport.Status.COPY_ERROR)
-            .count();
+        return directoriesByStatus.get(DirectoryReport.Status.COPY_ERROR).sum();
     }
 
     public long getEmptyDirs() {
-        return directoryReports.stream()
-            .filter(r -> r.getStatus() == DirectoryReport.Status.EMPTY)
-            .count();
+        return directoriesByStatus.get(DirectoryReport.Status.EMPTY).sum();
     }
 
     public long getFilesSeen() {
-        return directoryReports.stream()
-            .mapToLong(DirectoryReport::getFilesCount)
-            .sum();
+        return filesSeen.sum();
     }
 
     public long getFilesCopied() {
-        return directoryReports.stream()
-            .mapToLong(DirectoryReport::getCopiedCount)
-            .sum();
+        return filesByStatus.get(FileReport.Status.COPIED).sum();
     }
 
     public long getFilesFailed() {
-        return directoryReports.stream()
-            .mapToLong(DirectoryReport::getErrorCount)
-            .sum();
+        return filesByStatus.get(FileReport.Status.COPY_FAILED).sum();
+    }
+
+    public long getFilesSkipped() {
+        return filesByStatus.get(FileReport.Status.SKIPPED).sum();
     }
 
     public long getTotalBytesCopied() {
-        return directoryReports.stream()
-            .flatMap(d -> d.getFiles().stream())
-            .filter(f -> f.getStatus() == FileReport.Status.COPIED)
-            .mapToLong(FileReport::getSizeBytes)
-            .sum();
+        return bytesCopied.sum();
     }
 
     public List<DirectoryReport> getDirectoriesWithoutTags() {
@@ -115,16 +220,30 @@ public class RunTotals {
             .toList();
     }
 
-    public void addFileCounts(int totalFiles, int nonAudioFiles) {
+    /**
+     * Number of files placed with each organize mode, showing how many fell back to a copy.
+     */
+    public Map<OrganizeMode, Long> getOrganizeModeCounts() {
+        Map<OrganizeMode, Long> counts = new EnumMap<>(OrganizeMode.class);
+        filesByOrganizeMode.forEach((mode, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                counts.put(mode, sum);
+            }
+        });
+        return counts;
+    }
+
+    public synchronized void addFileCounts(int totalFiles, int nonAudioFiles) {
         this.totalFilesCount += totalFiles;
         this.nonAudioFilesCount += nonAudioFiles;
     }
 
-    public long getTotalFilesCount() {
+    public synchronized long getTotalFilesCount() {
         return totalFilesCount;
     }
 
-    public long getNonAudioFilesCount() {
+    public synchronized long getNonAudioFilesCount() {
         return nonAudioFilesCount;
     }
 }
@@ -0,0 +1,214 @@
+package io.github.warnotte.audiosorter.report;
+
+import com.google.gson.stream.JsonWriter;
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Search index of the catalog page, so it can search and filter without
+ * loading the album shards.
+ *
+ * Albums are numbered in shard order. For each album the index keeps, as
+ * columns, its artist, format and year (as numbers into shared tables), its
+ * track count and the text searched: album title, folder of untagged
+ * albums, and track titles. A trigram table maps every three-character
+ * sequence of the lower-cased text to the albums containing it; the page
+ * looks up the rarest trigram of a query and only checks those albums.
+ *
+ * Each list of albums is written as a string: the difference from the
+ * previous album number, in base 32 digits from {@link #DIGITS}, where the
+ * second half of the alphabet marks a digit followed by another one. Most
+ * differences take one character.
+ */
+final class CatalogSearchIndex {
+
+    static final String FILE = "search.js";
+    // Separates track titles in the text of an album; never part of a trigram
+    private static final char TRACK_SEPARATOR = '|';
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ-_";
+
+    private final List<String> artists = new ArrayList<>();
+    private final Map<String, Integer> artistIds = new HashMap<>();
+    private final Map<String, Integer> formats = new LinkedHashMap<>();
+    private final Map<String, Integer> years = new LinkedHashMap<>();
+
+    // One entry per album
+    private final IntColumn artist = new IntColumn();
+    private final IntColumn format = new IntColumn();
+    private final IntColumn year = new IntColumn();
+    private final IntColumn count = new IntColumn();
+    private final List<String> titles = new ArrayList<>();
+    private final List<String> folders = new ArrayList<>();
+    private final List<String> tracks = new ArrayList<>();
+
+    private final Map<String, IntColumn> trigrams = new HashMap<>();
+    private final Set<String> albumTrigrams = new HashSet<>();
+
+    /**
+     * Add the next album of the catalog.
+     * @param artistName its artist, or null for an untagged album
+     */
+    void add(String artistName, DirectoryReport report) {
+        int id = count.size;
+        String folder = artistName == null ? report.getPath().toAbsolutePath().toString() : "";
+        String title = report.getAlbum() != null ? report.getAlbum() : "";
+        StringBuilder trackTitles = new StringBuilder();
+        for (String name : report.getAudioFileNames()) {
+            if (trackTitles.length() > 0) {
+                trackTitles.append(TRACK_SEPARATOR);
+            }
+            // Searched without its extension
+            int dot = name.lastIndexOf('.');
+            trackTitles.append(name, 0, dot >= 0 && dot < name.length() - 1 ? dot : name.length());
+        }
+
+        artist.add(artistName == null ? -1 : artistIds.computeIfAbsent(artistName, n -> {
+            artists.add(n);
+            return artists.size() - 1;
+        }));
+        format.add(id(formats, report.getFormat()));
+        year.add(id(years, report.getYear()));
+        count.add(report.getFilesCount());
+        titles.add(title);
+        folders.add(folder);
+        tracks.add(trackTitles.toString());
+
+        albumTrigrams.clear();
+        addTrigrams(artistName != null ? artistName : folder);
+        addTrigrams(title);
+        addTrigrams(trackTitles.toString());
+        for (String trigram : albumTrigrams) {
+            trigrams.computeIfAbsent(trigram, t -> new IntColumn()).add(id);
+        }
+    }
+
+    private static int id(Map<String, Integer> table, String value) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        return table.computeIfAbsent(value, v -> table.size());
+    }
+
+    private void addTrigrams(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i + 3 <= lower.length(); i++) {
+            String trigram = lower.substring(i, i + 3);
+            if (isIndexed(trigram)) {
+                albumTrigrams.add(trigram);
+            }
+        }
+    }
+
+    /**
+     * Trigrams across two track titles, or with half a surrogate pair, are not indexed.
+     */
+    private static boolean isIndexed(String trigram) {
+        for (int i = 0; i < trigram.length(); i++) {
+            char c = trigram.charAt(i);
+            if (c == TRACK_SEPARATOR || Character.isSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write the index as a script calling catalogSearchIndex(index).
+     */
+    void write(Path directory) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(FILE), StandardCharsets.UTF_8)) {
+            writer.write("catalogSearchIndex(");
+            JsonWriter json = new JsonWriter(writer);
+            json.beginObject();
+            writeStrings(json, "artists", artists);
+            writeStrings(json, "formats", formats.keySet());
+            writeStrings(json, "years", years.keySet());
+            writeInts(json, "artist", artist);
+            writeInts(json, "format", format);
+            writeInts(json, "year", year);
+            writeInts(json, "count", count);
+            writeStrings(json, "title", titles);
+            writeStrings(json, "folder", folders);
+            writeStrings(json, "tracks", tracks);
+
+            // Sorted so the file does not depend on hash order
+            String[] keys = trigrams.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            json.name("trigrams").beginObject();
+            StringBuilder albums = new StringBuilder();
+            for (String key : keys) {
+                IntColumn ids = trigrams.get(key);
+                albums.setLength(0);
+                int previous = 0;
+                for (int i = 0; i < ids.size; i++) {
+                    appendNumber(albums, ids.values[i] - previous);
+                    previous = ids.values[i];
+                }
+                json.name(key).value(albums.toString());
+            }
+            json.endObject();
+            json.endObject();
+            json.flush();
+            writer.write(");\n");
+        }
+    }
+
+    private static void writeStrings(JsonWriter json, String name, Iterable<String> values) throws IOException {
+        json.name(name).beginArray();
+        for (String value : values) {
+            json.value(value);
+        }
+        json.endArray();
+    }
+
+    private static void writeInts(JsonWriter json, String name, IntColumn values) throws IOException {
+        json.name(name).beginArray();
+        for (int i = 0; i < values.size; i++) {
+            json.value(values.values[i]);
+        }
+        json.endArray();
+    }
+
+    /**
+     * Base 32 digits of a number, most significant first; all but the last from the second half of the alphabet.
+     */
+    private static void appendNumber(StringBuilder out, int number) {
+        int shift = 0;
+        while (shift < 30 && number >>> (shift + 5) != 0) {
+            shift += 5;
+        }
+        for (; shift > 0; shift -= 5) {
+            out.append(DIGITS.charAt(32 | (number >>> shift) & 31));
+        }
+        out.append(DIGITS.charAt(number & 31));
+    }
+
+    /**
+     * Growable int array, for the columns and posting lists.
+     */
+    private static final class IntColumn {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
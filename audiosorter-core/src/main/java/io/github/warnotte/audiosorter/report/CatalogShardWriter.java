@@ -0,0 +1,188 @@
+package io.github.warnotte.audiosorter.report;
+
+import com.google.gson.stream.JsonWriter;
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the albums of the catalog page as shards, loaded by the page only
+ * when they are scrolled to or searched.
+ *
+ * Artists are grouped by first letter, and a letter with many albums is split
+ * over several shards, always between two artists. Each shard is a script
+ * calling catalogShard(id, data) with its albums as JSON: browsers do not let
+ * a page opened from a file fetch other files, but they do load its scripts.
+ * Track and cover paths are stored relative to the album folder; cover
+ * thumbnails relative to the page.
+ *
+ * The {@link CatalogSearchIndex} of the same albums is written alongside.
+ */
+final class CatalogShardWriter {
+
+    static final String DIRECTORY = "catalog-data";
+    // Albums per shard before a letter is split; about a screenful of rows each
+    private static final int MAX_ALBUMS_PER_SHARD = 400;
+
+    private final Path directory;
+    private final Map<DirectoryReport, String> thumbnails;
+    private final List<Map<String, Object>> index = new ArrayList<>();
+    private final CatalogSearchIndex search = new CatalogSearchIndex();
+
+    // Shard being written
+    private Writer writer;
+    private JsonWriter json;
+    private String letter;
+    private int artists;
+    private int albums;
+    private long tracks;
+
+    /**
+     * @param catalogPath the catalog page; shards go to a directory next to it
+     * @param thumbnails cover thumbnail of each album that has one
+     */
+    CatalogShardWriter(Path catalogPath, Map<DirectoryReport, String> thumbnails) {
+        this.directory = catalogPath.resolveSibling(DIRECTORY);
+        this.thumbnails = thumbnails;
+    }
+
+    /**
+     * Write the shards of the tagged albums, by artist, then of the untagged albums.
+     * @return the index of the shards, in page order, for the template
+     */
+    List<Map<String, Object>> write(Map<String, List<DirectoryReport>> albumsByArtist,
+                                    List<DirectoryReport> untaggedAlbums) throws IOException {
+        clean();
+        try {
+            for (Map.Entry<String, List<DirectoryReport>> entry : albumsByArtist.entrySet()) {
+                String artistLetter = firstLetter(entry.getKey());
+                if (json != null && (!artistLetter.equals(letter) || albums >= MAX_ALBUMS_PER_SHARD)) {
+                    close(false);
+                }
+                if (json == null) {
+                    open(artistLetter);
+                }
+                writeArtist(entry.getKey(), entry.getValue());
+            }
+            close(false);
+
+            for (int start = 0; start < untaggedAlbums.size(); start += MAX_ALBUMS_PER_SHARD) {
+                open("");
+                List<DirectoryReport> page = untaggedAlbums.subList(start,
+                    Math.min(start + MAX_ALBUMS_PER_SHARD, untaggedAlbums.size()));
+                writeArtist(null, page);
+                close(true);
+            }
+            search.write(directory);
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Remove the shards of an earlier catalog, which may have had more of them.
+     */
+    private void clean() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.js")) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private void open(String shardLetter) throws IOException {
+        int id = index.size();
+        writer = Files.newBufferedWriter(directory.resolve(id + ".js"), StandardCharsets.UTF_8);
+        writer.write("catalogShard(" + id + ", ");
+        json = new JsonWriter(writer);
+        json.setSerializeNulls(false);
+        json.beginArray();
+        letter = shardLetter;
+        artists = 0;
+        albums = 0;
+        tracks = 0;
+    }
+
+    private void close(boolean untagged) throws IOException {
+        if (json == null) {
+            return;
+        }
+        json.endArray();
+        json.flush();
+        writer.write(");\n");
+        writer.close();
+        writer = null;
+        json = null;
+
+        int id = index.size();
+        Map<String, Object> shard = new HashMap<>();
+        shard.put("id", id);
+        shard.put("file", DIRECTORY + "/" + id + ".js");
+        shard.put("letter", letter);
+        shard.put("artists", artists);
+        shard.put("albums", albums);
+        shard.put("tracks", tracks);
+        shard.put("untagged", untagged);
+        index.add(shard);
+    }
+
+    /**
+     * One artist and its albums; untagged albums are written as a single group without a name.
+     */
+    private void writeArtist(String artist, List<DirectoryReport> reports) throws IOException {
+        json.beginObject();
+        json.name("name").value(artist);
+        json.name("albums").beginArray();
+        for (DirectoryReport report : reports) {
+            writeAlbum(report);
+            search.add(artist, report);
+        }
+        json.endArray();
+        json.endObject();
+        if (artist != null) {
+            artists++;
+        }
+    }
+
+    private void writeAlbum(DirectoryReport report) throws IOException {
+        json.beginObject();
+        json.name("path").value(report.getPath().toAbsolutePath().toString());
+        json.name("artist").value(report.getArtist());
+        json.name("album").value(report.getAlbum());
+        json.name("year").value(report.getYear());
+        json.name("format").value(report.getFormat());
+        json.name("bitrate").value(report.getBitrate());
+        json.name("cover").value(report.getCoverImageName());
+        json.name("thumb").value(thumbnails.get(report));
+        json.name("count").value(report.getFilesCount());
+        json.name("tracks").beginArray();
+        for (String name : report.getAudioFileNames()) {
+            json.value(name);
+        }
+        json.endArray();
+        json.endObject();
+        albums++;
+        tracks += report.getFilesCount();
+    }
+
+    private static String firstLetter(String artist) {
+        if (artist.isEmpty()) {
+            return "";
+        }
+        return artist.substring(0, artist.offsetByCodePoints(0, 1)).toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,251 @@
+package io.github.warnotte.audiosorter.report;
+
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Small JPEG copies of album covers for the catalog page, which would
+ * otherwise decode every original cover, some of them several megabytes.
+ *
+ * Thumbnails are kept in a cache directory next to the reports and named by
+ * a hash of the cover's path, size and modification time, so an unchanged
+ * cover is found again without reading it and a changed one gets a new
+ * thumbnail. Missing thumbnails are made in parallel; thumbnails no longer
+ * used by the catalog are deleted. A cover that cannot be read as an image,
+ * or whose thumbnail cannot be written, has none and the page shows the
+ * original.
+ */
+final class CoverThumbnails {
+
+    static final String DIRECTORY = "thumbnails";
+    // Shorter side in pixels; album cards are at least 180 px wide
+    private static final int SIZE = 300;
+    private static final float QUALITY = 0.85f;
+
+    private final Path directory;
+
+    /**
+     * @param reportsDirectory directory of the catalog page; thumbnails go to a directory in it
+     */
+    CoverThumbnails(Path reportsDirectory) {
+        this.directory = reportsDirectory.resolve(DIRECTORY);
+    }
+
+    /**
+     * Make the thumbnails of these albums that are not in the cache yet.
+     * @return the thumbnail of each album that has one, relative to the reports directory
+     */
+    Map<DirectoryReport, String> create(List<DirectoryReport> albums) throws IOException {
+        Files.createDirectories(directory);
+        Map<DirectoryReport, String> thumbnails = new IdentityHashMap<>();
+        Set<String> used = new HashSet<>();
+        List<DirectoryReport> missing = new ArrayList<>();
+        for (DirectoryReport album : albums) {
+            if (album.getCoverImageName() == null) {
+                continue;
+            }
+            String name = thumbnailName(album);
+            if (name == null) {
+                continue;
+            }
+            used.add(name);
+            thumbnails.put(album, DIRECTORY + "/" + name);
+            if (!Files.exists(directory.resolve(name))) {
+                missing.add(album);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(missing.size());
+            for (DirectoryReport album : missing) {
+                String name = thumbnails.get(album).substring(DIRECTORY.length() + 1);
+                results.add(executor.submit(() -> {
+                    try {
+                        return write(Path.of(album.getCoverImagePath()), directory.resolve(name));
+                    } catch (IOException e) {
+                        // Not written; the page shows the original cover
+                        return false;
+                    }
+                }));
+            }
+            for (int i = 0; i < missing.size(); i++) {
+                if (!results.get(i).get()) {
+                    thumbnails.remove(missing.get(i));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while making cover thumbnails", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to make cover thumbnails", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        deleteUnused(used);
+        return thumbnails;
+    }
+
+    /**
+     * File name of the thumbnail of an album's cover, or null if the cover is gone.
+     */
+    private static String thumbnailName(DirectoryReport album) {
+        long size = -1;
+        long lastModified = 0;
+        // Size and time of the cover as listed by the scan, otherwise read now
+        for (int i = 0; i < album.getSourceFileCount(); i++) {
+            if (album.getSourceFileName(i).equals(album.getCoverImageName())) {
+                size = album.getSourceFileSize(i);
+                lastModified = album.getSourceFileModified(i);
+                break;
+            }
+        }
+        String path = album.getCoverImagePath();
+        if (size < 0) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(Path.of(path), BasicFileAttributes.class);
+                size = attributes.size();
+                lastModified = attributes.lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        String key = path + '\0' + size + '\0' + lastModified + '\0' + SIZE;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            String hex = HexFormat.of().formatHex(hash, 0, 16);
+            // Spread over subdirectories so none holds too many files
+            return hex.substring(0, 2) + "/" + hex + ".jpg";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Write the thumbnail of a cover.
+     * @return false if the cover could not be read as an image
+     */
+    private static boolean write(Path cover, Path thumbnail) throws IOException {
+        BufferedImage image;
+        try {
+            image = read(cover);
+        } catch (IOException | RuntimeException e) {
+            // Unsupported format or damaged file
+            return false;
+        }
+        if (image == null) {
+            return false;
+        }
+
+        double scale = Math.min(1.0, (double) SIZE / Math.min(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no transparency
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        // Written next to its final name, so an interrupted run leaves no partial thumbnail
+        Files.createDirectories(thumbnail.getParent());
+        Path temporary = Files.createTempFile(thumbnail.getParent(), "thumbnail", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temporary.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(QUALITY);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(scaled, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temporary, thumbnail, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return true;
+    }
+
+    /**
+     * Decode an image, skipping rows and columns of large ones so only about
+     * twice the thumbnail size is held in memory.
+     */
+    private static BufferedImage read(Path cover) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(cover.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int shorter = Math.min(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, shorter / (SIZE * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void deleteUnused(Set<String> used) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    String name = directory.relativize(file).toString().replace('\\', '/');
+                    if (!used.contains(name)) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.warnotte.audiosorter.report;
+
+import freemarker.template.ObjectWrapper;
+import freemarker.template.TemplateCollectionModelEx;
+import freemarker.template.TemplateHashModel;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateModelIterator;
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Template view of a directory report, read from the report as the template
+ * asks for each value.
+ *
+ * Nothing is copied ahead of rendering: a {@link Sequence} holds only the
+ * reports to list and creates one view per step of a #list, so the memory
+ * used by a report page does not grow with the number of albums it shows.
+ */
+final class DirectoryModel implements TemplateHashModel {
+
+    private final DirectoryReport report;
+    private final ObjectWrapper wrapper;
+    // Built on first use; the catalog reads it several times per album
+    private TemplateModel audioFilePaths;
+
+    DirectoryModel(DirectoryReport report, ObjectWrapper wrapper) {
+        this.report = report;
+        this.wrapper = wrapper;
+    }
+
+    @Override
+    public TemplateModel get(String key) throws TemplateModelException {
+        Object value = switch (key) {
+            case "path" -> report.getPath().toString();
+            case "depth" -> report.getDepth();
+            case "status" -> report.getStatus().name();
+            case "statusClass" -> getStatusCssClass(report.getStatus());
+            case "filesCount" -> report.getFilesCount();
+            case "copiedCount" -> report.getCopiedCount();
+            case "errorCount" -> report.getErrorCount();
+            case "tagFound" -> report.isTagFound();
+            case "empty" -> report.isEmpty();
+            case "hasImageFile" -> report.hasImageFile();
+            case "coverImagePath" -> report.getCoverImagePath();
+            case "firstAudioFilePath" -> report.getFirstAudioFilePath();
+            case "audioFilePaths" -> {
+                if (audioFilePaths == null) {
+                    audioFilePaths = wrapper.wrap(report.getAudioFilePaths());
+                }
+                yield audioFilePaths;
+            }
+            case "artist" -> report.getArtist();
+            case "album" -> report.getAlbum();
+            case "year" -> report.getYear();
+            case "format" -> report.getFormat();
+            case "bitrate" -> report.getBitrate();
+            case "sampleRate" -> report.getSampleRate();
+            case "variableBitrate" -> report.isVariableBitrate();
+            case "destinationPath" -> report.getDestinationPath() != null ? report.getDestinationPath().toString() : null;
+            default -> null;
+        };
+        return value != null ? wrapper.wrap(value) : null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    private static String getStatusCssClass(DirectoryReport.Status status) {
+        return switch (status) {
+            case OK -> "status-ok";
+            case NO_TAG -> "status-warning";
+            case COPY_ERROR -> "status-error";
+            case EMPTY -> "status-empty";
+            case SKIPPED -> "status-skipped";
+        };
+    }
+
+    /**
+     * Directory reports listed by a template, viewed one at a time.
+     */
+    static final class Sequence implements TemplateCollectionModelEx {
+
+        private final List<DirectoryReport> reports;
+        private final ObjectWrapper wrapper;
+
+        Sequence(List<DirectoryReport> reports, ObjectWrapper wrapper) {
+            this.reports = reports;
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public int size() {
+            return reports.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return reports.isEmpty();
+        }
+
+        @Override
+        public TemplateModelIterator iterator() {
+            Iterator<DirectoryReport> iterator = reports.iterator();
+            return new TemplateModelIterator() {
+                @Override
+                public TemplateModel next() {
+                    return new DirectoryModel(iterator.next(), wrapper);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+            };
+        }
+    }
+}
@@ -17,13 +17,30 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Generates a modern HTML report using Freemarker templates.
+ *
+ * The model holds the directory reports themselves rather than copies of
+ * their values; templates read each directory while it is written out (see
+ * {@link DirectoryModel}), and both pages are streamed to buffered writers.
+ * The catalog page only holds an index; its albums are written as shards
+ * the page loads as needed (see {@link CatalogShardWriter}), and it shows
+ * cover thumbnails (see {@link CoverThumbnails}).
  */
 public class HtmlReportGenerator implements ReportGenerator {
 
+    /**
+     * Directory of cover thumbnails in the reports directory, a cache to keep
+     * when reports are cleaned up.
+     */
+    public static final String THUMBNAILS_DIRECTORY = CoverThumbnails.DIRECTORY;
+
+    // Covers for the catalog header mosaic
+    private static final int MAX_HEADER_COVERS = 100;
+
     private final Configuration freemarkerConfig;
 
     public HtmlReportGenerator() {
@@ -50,6 +67,7 @@ public class HtmlReportGenerator implements ReportGenerator {
 
         // Generate catalog page
         Path catalogPath = outputPath.resolveSibling("catalog.html");
+        buildCatalogModel(totals, model, catalogPath);
         try (Writer writer = Files.newBufferedWriter(catalogPath, StandardCharsets.UTF_8)) {
             Template template = freemarkerConfig.getTemplate("catalog.ftl");
             template.process(model, writer);
@@ -84,6 +102,7 @@ public class HtmlReportGenerator implements ReportGenerator {
         model.put("nonAudioFiles", totals.getNonAudioFilesCount());
         model.put("filesSeen", totals.getFilesSeen());
         model.put("filesCopied", totals.getFilesCopied());
+        model.put("filesSkipped", totals.getFilesSkipped());
         model.put("filesFailed", totals.getFilesFailed());
         model.put("totalBytesCopied", totals.getTotalBytesCopied());
         model.put("totalMBCopied", totals.getTotalBytesCopied() / (1024.0 * 1024.0));
@@ -93,28 +112,22 @@ public class HtmlReportGenerator implements ReportGenerator {
         double successRate = total > 0 ? (totals.getFilesCopied() * 100.0 / total) : 0;
         model.put("successRate", String.format("%.1f", successRate));
 
+        // Directory lists hold the reports themselves; templates view them one at a time
+        List<DirectoryReport> reports = totals.getDirectoryReports();
+
         // Directory reports sorted by path
-        List<Map<String, Object>> directoryReports = totals.getDirectoryReports().stream()
-            .sorted(Comparator.comparing(r -> r.getPath().toString()))
-            .map(this::mapDirectoryReport)
-            .toList();
-        model.put("directories", directoryReports);
+        List<DirectoryReport> byPath = new ArrayList<>(reports);
+        byPath.sort(Comparator.comparing(r -> r.getPath().toString()));
+        model.put("directories", sequence(byPath));
 
         // Directories without tags
-        List<Map<String, Object>> noTagDirsList = totals.getDirectoriesWithoutTags().stream()
-            .map(this::mapDirectoryReport)
-            .toList();
-        model.put("directoriesWithoutTags", noTagDirsList);
+        model.put("directoriesWithoutTags", sequence(totals.getDirectoriesWithoutTags()));
 
         // Empty directories
-        List<Map<String, Object>> emptyDirsList = totals.getDirectoryReports().stream()
-            .filter(DirectoryReport::isEmpty)
-            .map(this::mapDirectoryReport)
-            .toList();
-        model.put("emptyDirectories", emptyDirsList);
+        model.put("emptyDirectories", sequence(filter(reports, DirectoryReport::isEmpty)));
 
         // Duplicate albums detection (same Artist + Album, different formats)
-        Map<String, List<DirectoryReport>> albumGroups = totals.getDirectoryReports().stream()
+        Map<String, List<DirectoryReport>> albumGroups = reports.stream()
             .filter(r -> r.getArtist() != null && r.getAlbum() != null && !r.isEmpty())
             .collect(Collectors.groupingBy(
                 r -> normalizeForDuplicateCheck(r.getArtist()) + " /// " + normalizeForDuplicateCheck(r.getAlbum())
@@ -128,9 +141,7 @@ public class HtmlReportGenerator implements ReportGenerator {
                 group.put("artist", parts[0]);
                 group.put("album", parts.length > 1 ? parts[1] : "");
                 group.put("count", e.getValue().size());
-                group.put("directories", e.getValue().stream()
-                    .map(this::mapDirectoryReport)
-                    .toList());
+                group.put("directories", sequence(e.getValue()));
                 return group;
             })
             .toList();
@@ -138,35 +149,27 @@ public class HtmlReportGenerator implements ReportGenerator {
         model.put("duplicateAlbumsCount", duplicateGroups.size());
 
         // Small albums (≤2 files) - might be singles or incomplete
-        List<Map<String, Object>> smallAlbums = totals.getDirectoryReports().stream()
-            .filter(r -> !r.isEmpty() && r.getFilesCount() <= 2)
-            .sorted(Comparator.comparing(r -> r.getFilesCount()))
-            .map(this::mapDirectoryReport)
-            .toList();
-        model.put("smallAlbums", smallAlbums);
+        List<DirectoryReport> smallAlbums = filter(reports, r -> !r.isEmpty() && r.getFilesCount() <= 2);
+        smallAlbums.sort(Comparator.comparing(r -> r.getFilesCount()));
+        model.put("smallAlbums", sequence(smallAlbums));
 
         // Suspicious years (< 1900 or > current year + 1)
         int currentYear = java.time.Year.now().getValue();
-        List<Map<String, Object>> suspiciousYears = totals.getDirectoryReports().stream()
-            .filter(r -> !r.isEmpty() && r.getYear() != null && !r.getYear().contains("UNKNOWN"))
-            .filter(r -> {
-                try {
-                    int year = Integer.parseInt(normalizeYear(r.getYear()));
-                    return year < 1900 || year > currentYear + 1;
-                } catch (NumberFormatException e) {
-                    return false;
-                }
-            })
-            .map(this::mapDirectoryReport)
-            .toList();
-        model.put("suspiciousYears", suspiciousYears);
+        model.put("suspiciousYears", sequence(filter(reports, r -> {
+            if (r.isEmpty() || r.getYear() == null || r.getYear().contains("UNKNOWN")) {
+                return false;
+            }
+            try {
+                int year = Integer.parseInt(normalizeYear(r.getYear()));
+                return year < 1900 || year > currentYear + 1;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        })));
 
         // Missing cover art (no image files in directory) - only for dirs with audio files
-        List<Map<String, Object>> missingCovers = totals.getDirectoryReports().stream()
-            .filter(r -> !r.isEmpty() && r.getFilesCount() > 0 && !r.hasImageFile())
-            .map(this::mapDirectoryReport)
-            .toList();
-        model.put("missingCovers", missingCovers);
+        model.put("missingCovers", sequence(filter(reports,
+            r -> !r.isEmpty() && r.getFilesCount() > 0 && !r.hasImageFile())));
 
         // Failed files
         List<Map<String, Object>> failedFilesList = totals.getFailedFiles().stream()
@@ -177,31 +180,79 @@ public class HtmlReportGenerator implements ReportGenerator {
         // Statistics for charts
         model.put("chartData", buildChartData(totals));
 
+        return model;
+    }
+
+    /**
+     * Write the catalog shards next to the catalog page and add their index,
+     * with what the page shows before loading any of them, to the model.
+     */
+    private void buildCatalogModel(RunTotals totals, Map<String, Object> model, Path catalogPath) throws IOException {
+        List<DirectoryReport> reports = totals.getDirectoryReports();
+
         // Catalog data - grouped by artist, sorted
         // Only exclude if artist is exactly the default "UNKNOWN_ARTIST", not if it just contains "UNKNOWN"
-        Map<String, List<Map<String, Object>>> catalogByArtist = totals.getDirectoryReports().stream()
+        Map<String, List<DirectoryReport>> albumsByArtist = reports.stream()
             .filter(r -> !r.isEmpty() && r.getFilesCount() > 0)
             .filter(r -> r.getArtist() != null && !r.getArtist().equals("UNKNOWN_ARTIST"))
-            .collect(Collectors.groupingBy(
-                DirectoryReport::getArtist,
-                TreeMap::new,
-                Collectors.mapping(this::mapDirectoryReport, Collectors.toList())
-            ));
-        model.put("catalogByArtist", catalogByArtist);
-        model.put("catalogArtistCount", catalogByArtist.size());
-        model.put("catalogAlbumCount", catalogByArtist.values().stream().mapToInt(List::size).sum());
+            .collect(Collectors.groupingBy(DirectoryReport::getArtist, TreeMap::new, Collectors.toList()));
 
         // Untagged albums - albums with UNKNOWN_ARTIST (need tagging)
-        List<Map<String, Object>> untaggedAlbums = totals.getDirectoryReports().stream()
-            .filter(r -> !r.isEmpty() && r.getFilesCount() > 0)
-            .filter(r -> r.getArtist() == null || r.getArtist().equals("UNKNOWN_ARTIST"))
-            .sorted(Comparator.comparing(r -> r.getPath().getFileName().toString().toLowerCase()))
-            .map(this::mapDirectoryReport)
-            .toList();
-        model.put("untaggedAlbums", untaggedAlbums);
+        List<DirectoryReport> untaggedAlbums = filter(reports, r -> !r.isEmpty() && r.getFilesCount() > 0
+            && (r.getArtist() == null || r.getArtist().equals("UNKNOWN_ARTIST")));
+        untaggedAlbums.sort(Comparator.comparing(r -> r.getPath().getFileName().toString().toLowerCase()));
+
+        // Thumbnails of the covers, made before the shards that refer to them
+        List<DirectoryReport> albums = new ArrayList<>(untaggedAlbums);
+        albumsByArtist.values().forEach(albums::addAll);
+        Map<DirectoryReport, String> thumbnails = new CoverThumbnails(catalogPath.getParent()).create(albums);
+
+        List<Map<String, Object>> shards = new CatalogShardWriter(catalogPath, thumbnails).write(albumsByArtist, untaggedAlbums);
+        model.put("catalogShards", shards);
+        model.put("catalogSearchFile", CatalogShardWriter.DIRECTORY + "/" + CatalogSearchIndex.FILE);
+        model.put("catalogArtistCount", albumsByArtist.size());
+        model.put("catalogAlbumCount", albumsByArtist.values().stream().mapToInt(List::size).sum());
         model.put("untaggedAlbumsCount", untaggedAlbums.size());
 
-        return model;
+        // Filter choices and header covers, known before any shard is loaded
+        Set<String> formats = new TreeSet<>();
+        Set<String> years = new TreeSet<>(Comparator.reverseOrder());
+        List<String> covers = new ArrayList<>();
+        for (DirectoryReport r : reports) {
+            if (r.isEmpty() || r.getFilesCount() == 0) {
+                continue;
+            }
+            if (r.getFormat() != null && !r.getFormat().isEmpty()) {
+                formats.add(r.getFormat());
+            }
+            if (r.getYear() != null && !r.getYear().isEmpty()) {
+                years.add(r.getYear());
+            }
+        }
+        for (List<DirectoryReport> artistAlbums : albumsByArtist.values()) {
+            for (DirectoryReport r : artistAlbums) {
+                if (thumbnails.containsKey(r)) {
+                    covers.add(thumbnails.get(r));
+                }
+            }
+        }
+        model.put("catalogFormats", new ArrayList<>(formats));
+        model.put("catalogYears", new ArrayList<>(years));
+        model.put("catalogCovers", sample(covers, MAX_HEADER_COVERS));
+    }
+
+    /**
+     * At most max elements spread evenly over the list.
+     */
+    private static List<String> sample(List<String> list, int max) {
+        if (list.size() <= max) {
+            return list;
+        }
+        List<String> sample = new ArrayList<>(max);
+        for (int i = 0; i < max; i++) {
+            sample.add(list.get((int) ((long) i * list.size() / max)));
+        }
+        return sample;
     }
 
     private Map<String, Object> buildChartData(RunTotals totals) {
@@ -229,23 +280,23 @@ public class HtmlReportGenerator implements ReportGenerator {
         chartData.put("yearValues", new ArrayList<>(yearFileCounts.values()));
 
         // Directories (albums) by Year distribution
-        Map<String, List<String>> albumsByYear = totals.getDirectoryReports().stream()
-            .filter(r -> !r.isEmpty())
-            .collect(Collectors.groupingBy(
-                r -> normalizeYear(r.getYear()),
-                TreeMap::new,
-                Collectors.mapping(
-                    r -> (r.getArtist() != null ? r.getArtist() : "?") + " - " + (r.getAlbum() != null ? r.getAlbum() : "?"),
-                    Collectors.toList()
-                )
-            ));
-        chartData.put("yearDirLabels", new ArrayList<>(albumsByYear.keySet()));
-        chartData.put("yearDirValues", albumsByYear.values().stream().map(List::size).collect(Collectors.toList()));
         // Limit albums per year to 50 for tooltip performance
-        List<List<String>> limitedAlbums = albumsByYear.values().stream()
-            .map(list -> list.size() > 50 ? list.subList(0, 50) : list)
-            .collect(Collectors.toList());
-        chartData.put("yearDirAlbums", limitedAlbums);
+        Map<String, Integer> albumCountsByYear = new TreeMap<>();
+        Map<String, List<String>> albumsByYear = new TreeMap<>();
+        for (DirectoryReport r : totals.getDirectoryReports()) {
+            if (r.isEmpty()) {
+                continue;
+            }
+            String year = normalizeYear(r.getYear());
+            albumCountsByYear.merge(year, 1, Integer::sum);
+            List<String> albums = albumsByYear.computeIfAbsent(year, y -> new ArrayList<>());
+            if (albums.size() < 50) {
+                albums.add((r.getArtist() != null ? r.getArtist() : "?") + " - " + (r.getAlbum() != null ? r.getAlbum() : "?"));
+            }
+        }
+        chartData.put("yearDirLabels", new ArrayList<>(albumCountsByYear.keySet()));
+        chartData.put("yearDirValues", new ArrayList<>(albumCountsByYear.values()));
+        chartData.put("yearDirAlbums", new ArrayList<>(albumsByYear.values()));
 
         // Top 30 artists by file count
         Map<String, Long> artistFileCounts = totals.getDirectoryReports().stream()
@@ -323,32 +374,18 @@ public class HtmlReportGenerator implements ReportGenerator {
         return "< 128";
     }
 
-    private Map<String, Object> mapDirectoryReport(DirectoryReport report) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("path", report.getPath().toString());
-        map.put("depth", report.getDepth());
-        map.put("status", report.getStatus().name());
-        map.put("statusClass", getStatusCssClass(report.getStatus()));
-        map.put("filesCount", report.getFilesCount());
-        map.put("copiedCount", report.getCopiedCount());
-        map.put("errorCount", report.getErrorCount());
-        map.put("tagFound", report.isTagFound());
-        map.put("empty", report.isEmpty());
-        map.put("hasImageFile", report.hasImageFile());
-        map.put("coverImagePath", report.getCoverImagePath());
-        map.put("firstAudioFilePath", report.getFirstAudioFilePath());
-        map.put("audioFilePaths", report.getAudioFilePaths());
-        map.put("artist", report.getArtist());
-        map.put("album", report.getAlbum());
-        map.put("year", report.getYear());
-        map.put("format", report.getFormat());
-        map.put("bitrate", report.getBitrate());
-        map.put("sampleRate", report.getSampleRate());
-        map.put("variableBitrate", report.isVariableBitrate());
-        if (report.getDestinationPath() != null) {
-            map.put("destinationPath", report.getDestinationPath().toString());
+    private DirectoryModel.Sequence sequence(List<DirectoryReport> reports) {
+        return new DirectoryModel.Sequence(reports, freemarkerConfig.getObjectWrapper());
+    }
+
+    private static List<DirectoryReport> filter(List<DirectoryReport> reports, Predicate<DirectoryReport> filter) {
+        List<DirectoryReport> matching = new ArrayList<>();
+        for (DirectoryReport report : reports) {
+            if (filter.test(report)) {
+                matching.add(report);
+            }
         }
-        return map;
+        return matching;
     }
 
     private Map<String, Object> mapFileReport(FileReport report) {
@@ -364,16 +401,6 @@ public class HtmlReportGenerator implements ReportGenerator {
         return map;
     }
 
-    private String getStatusCssClass(DirectoryReport.Status status) {
-        return switch (status) {
-            case OK -> "status-ok";
-            case NO_TAG -> "status-warning";
-            case COPY_ERROR -> "status-error";
-            case EMPTY -> "status-empty";
-            case SKIPPED -> "status-skipped";
-        };
-    }
-
     private String formatDuration(long seconds) {
         if (seconds < 60) {
             return seconds + "s";
@@ -0,0 +1,40 @@
+package io.github.warnotte.audiosorter.report;
+
+import com.google.gson.stream.JsonWriter;
+import io.github.warnotte.audiosorter.core.DirectoryReportSink;
+import io.github.warnotte.audiosorter.model.DirectoryReport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes each directory report as one line of JSON (JSON Lines) as soon as it is
+ * completed, using the same fields as the directoryDetails of the JSON report.
+ * Used to spill streaming scans to disk instead of keeping reports in memory.
+ */
+public class JsonLinesReportSink implements DirectoryReportSink, Closeable {
+
+    private final Writer writer;
+
+    public JsonLinesReportSink(Path outputPath) throws IOException {
+        this.writer = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void accept(DirectoryReport report) throws IOException {
+        // A writer per line: each holds a single JSON value
+        JsonWriter json = new JsonWriter(writer);
+        json.setSerializeNulls(false);
+        JsonReportGenerator.writeDirectoryReport(json, report);
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -1,142 +1,190 @@
 package io.github.warnotte.audiosorter.report;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 import io.github.warnotte.audiosorter.core.SortConfiguration;
 import io.github.warnotte.audiosorter.model.DirectoryReport;
 import io.github.warnotte.audiosorter.model.FileReport;
+import io.github.warnotte.audiosorter.model.OrganizeMode;
 import io.github.warnotte.audiosorter.model.RunTotals;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Generates a JSON report for programmatic access.
+ *
+ * The report is streamed to the file as it is built, one directory at a
+ * time, so its size does not bound the memory needed. It is indented unless
+ * {@link SortConfiguration#isCompactJson()}, and compressed as
+ * {@link SortConfiguration#getReportCompression()} says; the caller names
+ * the file accordingly. Fields without a value are left out.
  */
 public class JsonReportGenerator implements ReportGenerator {
 
-    private final Gson gson;
-
-    public JsonReportGenerator() {
-        this.gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .disableHtmlEscaping()
-            .create();
-    }
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     @Override
     public void generate(RunTotals totals, SortConfiguration config, Path outputPath) throws IOException {
-        Map<String, Object> report = buildReport(totals, config);
-        String json = gson.toJson(report);
-        Files.writeString(outputPath, json, StandardCharsets.UTF_8);
+        try (JsonWriter json = new JsonWriter(new BufferedWriter(new OutputStreamWriter(
+                config.getReportCompression().wrap(new BufferedOutputStream(Files.newOutputStream(outputPath), BUFFER_SIZE)),
+                StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            if (!config.isCompactJson()) {
+                json.setIndent("  ");
+            }
+            json.setSerializeNulls(false);
+            writeReport(json, totals, config);
+        }
     }
 
-    private Map<String, Object> buildReport(RunTotals totals, SortConfiguration config) {
-        // Using LinkedHashMap to preserve insertion order
-        Map<String, Object> report = new LinkedHashMap<>();
+    private void writeReport(JsonWriter json, RunTotals totals, SortConfiguration config) throws IOException {
+        json.beginObject();
 
         // Metadata
-        Map<String, Object> metadata = new LinkedHashMap<>();
-        metadata.put("generatedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        metadata.put("inputDirectory", config.getInputDirectory().toString());
-        metadata.put("outputDirectory", config.getOutputDirectory().toString());
-        metadata.put("debugMode", config.isDebugMode());
-        report.put("metadata", metadata);
+        json.name("metadata").beginObject();
+        json.name("generatedAt").value(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        json.name("inputDirectory").value(config.getInputDirectory().toString());
+        json.name("outputDirectory").value(config.getOutputDirectory().toString());
+        json.name("debugMode").value(config.isDebugMode());
+        if (config.getChecksumAlgorithm() != null) {
+            json.name("checksumAlgorithm").value(config.getChecksumAlgorithm().name());
+        }
+        json.endObject();
 
         // Summary
-        Map<String, Object> summary = new LinkedHashMap<>();
-        summary.put("durationSeconds", totals.getTotalDuration().toSeconds());
-
-        Map<String, Object> directories = new LinkedHashMap<>();
-        directories.put("total", totals.getDirectoriesTotal());
-        directories.put("ok", totals.getOkDirs());
-        directories.put("noTag", totals.getNoTagDirs());
-        directories.put("copyError", totals.getCopyErrorDirs());
-        directories.put("empty", totals.getEmptyDirs());
-        summary.put("directories", directories);
-
-        Map<String, Object> files = new LinkedHashMap<>();
-        files.put("seen", totals.getFilesSeen());
-        files.put("copied", totals.getFilesCopied());
-        files.put("failed", totals.getFilesFailed());
-        files.put("totalBytes", totals.getTotalBytesCopied());
-        summary.put("files", files);
-
-        report.put("summary", summary);
+        json.name("summary").beginObject();
+        json.name("durationSeconds").value(totals.getTotalDuration().toSeconds());
+
+        if (totals.getCopyStartTime() != null) {
+            json.name("timeline").beginObject();
+            json.name("scanMillis").value(totals.getTotalDuration().toMillis());
+            json.name("copyMillis").value(totals.getCopyDuration().toMillis());
+            json.name("overlapMillis").value(totals.getStageOverlap().toMillis());
+            json.endObject();
+        }
+
+        json.name("directories").beginObject();
+        json.name("total").value(totals.getDirectoriesTotal());
+        json.name("ok").value(totals.getOkDirs());
+        json.name("noTag").value(totals.getNoTagDirs());
+        json.name("copyError").value(totals.getCopyErrorDirs());
+        json.name("empty").value(totals.getEmptyDirs());
+        json.endObject();
+
+        json.name("files").beginObject();
+        json.name("seen").value(totals.getFilesSeen());
+        json.name("copied").value(totals.getFilesCopied());
+        json.name("skipped").value(totals.getFilesSkipped());
+        json.name("failed").value(totals.getFilesFailed());
+        json.name("totalBytes").value(totals.getTotalBytesCopied());
+        Map<OrganizeMode, Long> organizeModes = totals.getOrganizeModeCounts();
+        if (!organizeModes.isEmpty()) {
+            json.name("organizeModes").beginObject();
+            for (Map.Entry<OrganizeMode, Long> entry : organizeModes.entrySet()) {
+                json.name(entry.getKey().name()).value(entry.getValue());
+            }
+            json.endObject();
+        }
+        json.endObject();
+
+        json.endObject();
 
         // Directory details
-        List<Map<String, Object>> directoryDetails = totals.getDirectoryReports().stream()
-            .sorted(Comparator.comparing(r -> r.getPath().toString()))
-            .map(this::mapDirectoryReport)
-            .toList();
-        report.put("directoryDetails", directoryDetails);
+        List<DirectoryReport> directories = new ArrayList<>(totals.getDirectoryReports());
+        directories.sort(Comparator.comparing(r -> r.getPath().toString()));
+        json.name("directoryDetails").beginArray();
+        for (DirectoryReport report : directories) {
+            writeDirectoryReport(json, report);
+        }
+        json.endArray();
 
         // Problems
-        Map<String, Object> problems = new LinkedHashMap<>();
+        json.name("problems").beginObject();
 
-        List<String> noTagPaths = totals.getDirectoriesWithoutTags().stream()
-            .map(d -> d.getPath().toString())
-            .toList();
-        problems.put("directoriesWithoutTags", noTagPaths);
+        json.name("directoriesWithoutTags").beginArray();
+        for (DirectoryReport report : totals.getDirectoriesWithoutTags()) {
+            json.value(report.getPath().toString());
+        }
+        json.endArray();
 
-        List<Map<String, Object>> failedFiles = totals.getFailedFiles().stream()
-            .map(this::mapFileReport)
-            .toList();
-        problems.put("failedFiles", failedFiles);
+        json.name("failedFiles").beginArray();
+        for (FileReport file : totals.getFailedFiles()) {
+            writeFileReport(json, file);
+        }
+        json.endArray();
 
-        report.put("problems", problems);
+        json.endObject();
 
-        return report;
+        json.endObject();
     }
 
-    private Map<String, Object> mapDirectoryReport(DirectoryReport report) {
-        Map<String, Object> map = new LinkedHashMap<>();
-        map.put("path", report.getPath().toString());
-        map.put("depth", report.getDepth());
-        map.put("status", report.getStatus().name());
-        map.put("filesCount", report.getFilesCount());
-        map.put("copiedCount", report.getCopiedCount());
-        map.put("errorCount", report.getErrorCount());
+    /**
+     * One entry of directoryDetails; the writer should leave out null values.
+     */
+    static void writeDirectoryReport(JsonWriter json, DirectoryReport report) throws IOException {
+        json.beginObject();
+        json.name("path").value(report.getPath().toString());
+        json.name("depth").value(report.getDepth());
+        json.name("status").value(report.getStatus().name());
+        json.name("filesCount").value(report.getFilesCount());
+        json.name("copiedCount").value(report.getCopiedCount());
+        json.name("skippedCount").value(report.getSkippedCount());
+        json.name("errorCount").value(report.getErrorCount());
 
         if (report.isTagFound()) {
-            Map<String, Object> metadata = new LinkedHashMap<>();
-            metadata.put("artist", report.getArtist());
-            metadata.put("album", report.getAlbum());
-            metadata.put("year", report.getYear());
+            json.name("metadata").beginObject();
+            json.name("artist").value(report.getArtist());
+            json.name("album").value(report.getAlbum());
+            json.name("year").value(report.getYear());
             if (report.getFormat() != null) {
-                metadata.put("format", report.getFormat());
-                metadata.put("bitrate", report.getBitrate());
-                metadata.put("sampleRate", report.getSampleRate());
-                metadata.put("variableBitrate", report.isVariableBitrate());
+                json.name("format").value(report.getFormat());
+                json.name("bitrate").value(report.getBitrate());
+                json.name("sampleRate").value(report.getSampleRate());
+                json.name("variableBitrate").value(report.isVariableBitrate());
             }
-            map.put("metadata", metadata);
+            json.endObject();
         }
 
         if (report.getDestinationPath() != null) {
-            map.put("destinationPath", report.getDestinationPath().toString());
+            json.name("destinationPath").value(report.getDestinationPath().toString());
         }
 
-        return map;
+        // With checksums the report doubles as a manifest of every copied file
+        List<FileReport> files = report.getFiles();
+        if (files.stream().anyMatch(f -> f.getChecksum() != null)) {
+            json.name("files").beginArray();
+            for (FileReport file : files) {
+                writeFileReport(json, file);
+            }
+            json.endArray();
+        }
+
+        json.endObject();
     }
 
-    private Map<String, Object> mapFileReport(FileReport report) {
-        Map<String, Object> map = new LinkedHashMap<>();
-        map.put("source", report.getSource().toString());
-        map.put("status", report.getStatus().name());
-        map.put("errorMessage", report.getErrorMessage());
-        map.put("sizeBytes", report.getSizeBytes());
+    private static void writeFileReport(JsonWriter json, FileReport report) throws IOException {
+        json.beginObject();
+        json.name("source").value(report.getSource().toString());
+        json.name("status").value(report.getStatus().name());
+        json.name("errorMessage").value(report.getErrorMessage());
+        json.name("sizeBytes").value(report.getSizeBytes());
         if (report.getDestination() != null) {
-            map.put("destination", report.getDestination().toString());
+            json.name("destination").value(report.getDestination().toString());
+        }
+        if (report.getChecksum() != null) {
+            json.name("checksum").value(report.getChecksum());
         }
-        return map;
+        json.endObject();
     }
 
     @Override
@@ -587,6 +587,13 @@
             transition: opacity 0.3s, max-height 0.3s;
         }
 
+        .untagged-content .shard-section {
+            grid-column: 1 / -1;
+            display: grid;
+            grid-template-columns: repeat(auto-fill, minmax(180px, 1fr));
+            gap: 1.5rem;
+        }
+
         .untagged-content.collapsed {
             display: none;
         }
@@ -1067,59 +1074,13 @@
 </div>
 
 <div class="container" id="mainContent">
-    <#list catalogByArtist as artist, albums>
-    <div class="artist-section"
-         data-artist="${artist?js_string}"
-         data-artist-lower="${artist?lower_case?js_string}"
-         data-first-letter="${artist?substring(0, 1)?upper_case}">
-        <div class="artist-header" onclick="showArtist('${artist?js_string}')">
-            <span class="artist-letter">${artist?substring(0, 1)?upper_case}</span>
-            <span class="artist-name">${artist}</span>
-            <span class="album-count">${albums?size} album<#if albums?size != 1>s</#if></span>
-        </div>
-        <div class="albums-grid">
-            <#list albums as album>
-            <div class="album-card"
-                 data-artist="${artist?js_string}"
-                 data-album="${(album.album!'')?js_string}"
-                 data-album-lower="${(album.album!'')?lower_case?js_string}"
-                 data-year="${album.year!'Unknown'}"
-                 data-format="${album.format!''}"
-                 data-path="${album.path?js_string}"
-                 data-cover="${(album.coverImagePath!'')?js_string}"
-                 data-audio="${(album.firstAudioFilePath!'')?js_string}"
-                 data-tracks="<#if album.audioFilePaths??><#list album.audioFilePaths as track>${track?js_string}<#if track_has_next>|</#if></#list></#if>"
-                 data-track-names="<#if album.audioFilePaths??><#list album.audioFilePaths as track>${track?replace('\\', '/')?keep_after_last("/")?keep_before_last(".")?lower_case?js_string}<#if track_has_next>|</#if></#list></#if>"
-                 data-track-count="${album.filesCount?c}"
-                 onclick="playAlbum(this)">
-                <div class="album-cover">
-                    <#if album.coverImagePath?? && album.coverImagePath != "">
-                    <img src="file:///${album.coverImagePath?replace('\\', '/')}" alt="" onerror="this.parentElement.innerHTML='<span class=\'no-cover\'>&#127925;</span>'">
-                    <#else>
-                    <span class="no-cover">&#127925;</span>
-                    </#if>
-                    <div class="play-overlay">
-                        <div class="play-btn">&#9654;</div>
-                    </div>
-                </div>
-                <div class="album-info">
-                    <div class="album-title" title="${album.album!''}">${album.album!''}</div>
-                    <div class="album-artist" onclick="event.stopPropagation(); showArtist('${artist?js_string}')">${artist}</div>
-                    <div class="album-year">${album.year!'Unknown'}</div>
-                    <div class="album-meta">
-                        <#if album.format??><span class="album-tag">${album.format}</span></#if>
-                        <#if album.bitrate??><span class="album-tag">${album.bitrate?c} kbps</span></#if>
-                        <span class="album-tag">${album.filesCount?c} tracks</span>
-                    </div>
-                </div>
-            </div>
-            </#list>
-        </div>
-    </div>
+    <#-- One placeholder per shard; albums are rendered when a shard is scrolled to -->
+    <#list catalogShards?filter(s -> !s.untagged) as shard>
+    <section class="shard-section" id="shard-${shard.id?c}" data-shard="${shard.id?c}"></section>
     </#list>
 
     <#-- Untagged Albums Section -->
-    <#if untaggedAlbums?? && (untaggedAlbums?size > 0)>
+    <#if (untaggedAlbumsCount > 0)>
     <div class="untagged-section" id="untaggedSection">
         <div class="untagged-header" onclick="toggleUntagged()">
             <span class="untagged-icon">&#9888;</span>
@@ -1131,43 +1092,8 @@
             <span class="untagged-toggle" id="untaggedToggle">&#9660;</span>
         </div>
         <div class="untagged-content" id="untaggedContent">
-            <#list untaggedAlbums as album>
-            <div class="album-card untagged-card"
-                 data-artist="${(album.artist!'')?js_string}"
-                 data-album="${(album.album!'')?js_string}"
-                 data-album-lower="${(album.album!'')?lower_case?js_string}"
-                 data-year="${album.year!'Unknown'}"
-                 data-format="${album.format!''}"
-                 data-path="${album.path?js_string}"
-                 data-cover="${(album.coverImagePath!'')?js_string}"
-                 data-audio="${(album.firstAudioFilePath!'')?js_string}"
-                 data-tracks="<#if album.audioFilePaths??><#list album.audioFilePaths as track>${track?js_string}<#if track_has_next>|</#if></#list></#if>"
-                 data-track-names="<#if album.audioFilePaths??><#list album.audioFilePaths as track>${track?replace('\\', '/')?keep_after_last("/")?keep_before_last(".")?lower_case?js_string}<#if track_has_next>|</#if></#list></#if>"
-                 data-track-count="${album.filesCount?c}"
-                 onclick="playAlbum(this)">
-                <span class="untagged-badge">NO TAGS</span>
-                <button class="tag-btn" onclick="event.stopPropagation(); openForTagging('${album.path?js_string}')">&#9998; Tag</button>
-                <div class="album-cover">
-                    <#if album.coverImagePath?? && album.coverImagePath != "">
-                    <img src="file:///${album.coverImagePath?replace('\\', '/')}" alt="" onerror="this.parentElement.innerHTML='<span class=\'no-cover\'>&#127925;</span>'">
-                    <#else>
-                    <span class="no-cover">&#127925;</span>
-                    </#if>
-                    <div class="play-overlay">
-                        <div class="play-btn">&#9654;</div>
-                    </div>
-                </div>
-                <div class="album-info">
-                    <div class="album-title" title="${album.path?keep_after_last('\\')}">${album.path?keep_after_last('\\')}</div>
-                    <div class="album-artist" style="color: #ff6b6b;">Unknown Artist</div>
-                    <div class="album-year">${album.year!'Unknown'}</div>
-                    <div class="album-meta">
-                        <#if album.format??><span class="album-tag">${album.format}</span></#if>
-                        <#if album.bitrate??><span class="album-tag">${album.bitrate?c} kbps</span></#if>
-                        <span class="album-tag">${album.filesCount?c} tracks</span>
-                    </div>
-                </div>
-            </div>
+            <#list catalogShards?filter(s -> s.untagged) as shard>
+            <section class="shard-section" id="shard-${shard.id?c}" data-shard="${shard.id?c}"></section>
             </#list>
         </div>
     </div>
@@ -1252,6 +1178,30 @@ let currentAlbumData = null;
 
 const audio = document.getElementById('audioPlayer');
 
+// Catalog index: albums live in shard scripts under catalog-data/, loaded when
+// their section nears the viewport
+const shards = [
+<#list catalogShards as shard>
+    { id: ${shard.id?c}, file: '${shard.file?js_string}', letter: '${shard.letter?js_string}', artists: ${shard.artists?c}, albums: ${shard.albums?c}, tracks: ${shard.tracks?c}, untagged: ${shard.untagged?c} }<#sep>,</#sep>
+</#list>
+];
+const catalogFormats = [<#list catalogFormats as format>'${format?js_string}'<#sep>, </#list>];
+const catalogYears = [<#list catalogYears as year>'${year?js_string}'<#sep>, </#list>];
+const headerCovers = [<#list catalogCovers as cover>'${cover?js_string}'<#sep>, </#list>];
+
+// Rendered sections further than this from the viewport are emptied again
+const SHARD_MARGIN = '1500px 0px';
+let filterGeneration = 0;
+
+// Search index: text, format, year and artist of every album, numbered in shard
+// order, with the albums containing each trigram; loaded on first search
+const searchIndexFile = '${catalogSearchFile?js_string}';
+let searchIndex = null;
+let searchIndexLoading = null;
+let searchIndexLoaded = null;
+// Result of the last search by album number (see matchAlbums), null when not filtering
+let searchMatches = null;
+
 // Initialize
 document.addEventListener('DOMContentLoaded', function() {
     buildHeaderMosaic();
@@ -1259,17 +1209,13 @@ document.addEventListener('DOMContentLoaded', function() {
     buildAlphabetNav();
     setupSearch();
     setupAudioPlayer();
+    setupShards();
     restorePlaybackState();
 });
 
 // Build header background mosaic from album covers
 function buildHeaderMosaic() {
-    const covers = [];
-    document.querySelectorAll('.album-card').forEach(card => {
-        if (card.dataset.cover) {
-            covers.push(card.dataset.cover);
-        }
-    });
+    const covers = headerCovers.slice();
 
     if (covers.length === 0) return;
 
@@ -1281,7 +1227,7 @@ function buildHeaderMosaic() {
     for (let i = 0; i < needed && i < shuffled.length * 3; i++) {
         const img = document.createElement('img');
         img.className = 'header-bg-img';
-        img.src = 'file:///' + shuffled[i % shuffled.length].replace(/\\/g, '/');
+        img.src = shuffled[i % shuffled.length];
         img.onerror = () => img.style.display = 'none';
         headerBg.appendChild(img);
     }
@@ -1289,22 +1235,14 @@ function buildHeaderMosaic() {
 
 // Build filter dropdowns
 function buildFilters() {
-    const formats = new Set();
-    const years = new Set();
-
-    document.querySelectorAll('.album-card').forEach(card => {
-        if (card.dataset.format) formats.add(card.dataset.format);
-        if (card.dataset.year && card.dataset.year !== 'Unknown') years.add(card.dataset.year);
-    });
-
     const formatSelect = document.getElementById('filterFormat');
-    Array.from(formats).sort().forEach(f => {
-        formatSelect.innerHTML += '<option value="' + f + '">' + f + '</option>';
+    catalogFormats.forEach(f => {
+        formatSelect.innerHTML += '<option value="' + escapeHtml(f) + '">' + escapeHtml(f) + '</option>';
     });
 
     const yearSelect = document.getElementById('filterYear');
-    Array.from(years).sort().reverse().forEach(y => {
-        yearSelect.innerHTML += '<option value="' + y + '">' + y + '</option>';
+    catalogYears.forEach(y => {
+        yearSelect.innerHTML += '<option value="' + escapeHtml(y) + '">' + escapeHtml(y) + '</option>';
     });
 
     formatSelect.onchange = applyFilters;
@@ -1314,8 +1252,8 @@ function buildFilters() {
 // Build alphabet navigation
 function buildAlphabetNav() {
     const letters = new Set();
-    document.querySelectorAll('.artist-section').forEach(s => {
-        letters.add(s.dataset.firstLetter);
+    shards.forEach(s => {
+        if (!s.untagged) letters.add(s.letter);
     });
 
     const nav = document.getElementById('alphabetNav');
@@ -1329,10 +1267,144 @@ function buildAlphabetNav() {
 }
 
 function scrollToLetter(letter) {
-    const section = document.querySelector('.artist-section[data-first-letter="' + letter + '"]:not(.hidden)');
-    if (section) {
-        section.scrollIntoView({ behavior: 'smooth', block: 'start' });
+    const shard = shards.find(s => !s.untagged && s.letter === letter && !shardSection(s).classList.contains('hidden'));
+    if (shard) {
+        shardSection(shard).scrollIntoView({ behavior: 'smooth', block: 'start' });
+    }
+}
+
+// Shards
+function shardSection(shard) {
+    return document.getElementById('shard-' + shard.id);
+}
+
+function setupShards() {
+    const observer = new IntersectionObserver(entries => {
+        entries.forEach(entry => {
+            const shard = shards[entry.target.dataset.shard];
+            shard.near = entry.isIntersecting;
+            if (shard.near) {
+                loadShard(shard).then(() => {
+                    if (shard.near && !shard.rendered) renderShard(shard);
+                });
+            } else if (shard.rendered) {
+                // Keep the space it takes so the scroll position does not jump
+                const section = shardSection(shard);
+                section.style.minHeight = section.offsetHeight + 'px';
+                section.innerHTML = '';
+                shard.rendered = false;
+            }
+        });
+    }, { rootMargin: SHARD_MARGIN });
+
+    let start = 0;
+    shards.forEach(shard => {
+        shard.start = start;
+        start += shard.albums;
+        shard.visibleArtists = shard.artists;
+        shard.visibleAlbums = shard.albums;
+        shardSection(shard).style.minHeight = estimateHeight(shard) + 'px';
+        observer.observe(shardSection(shard));
+    });
+}
+
+function loadShard(shard) {
+    if (!shard.loading) {
+        shard.loading = new Promise(resolve => {
+            shard.loaded = resolve;
+            const script = document.createElement('script');
+            script.src = shard.file;
+            script.onerror = () => {
+                console.log('Failed to load catalog shard:', shard.file);
+                shard.data = [];
+                resolve();
+            };
+            document.head.appendChild(script);
+        });
+    }
+    return shard.loading;
+}
+
+// Called by each shard script with its artists and their albums
+function catalogShard(id, artists) {
+    const shard = shards[id];
+    shard.data = artists;
+    shard.loaded();
+}
+
+// Rough height of a section before it is rendered, from its visible artists and albums
+function estimateHeight(shard) {
+    const width = document.getElementById('mainContent').clientWidth - 64;
+    const columns = Math.max(1, Math.floor((width + 24) / (180 + 24)));
+    const cardHeight = width / columns + 110;
+    if (shard.untagged) {
+        return Math.ceil(shard.visibleAlbums / columns) * cardHeight;
+    }
+    const rows = Math.ceil(shard.visibleAlbums / columns + shard.visibleArtists / 2);
+    return rows * cardHeight + shard.visibleArtists * 110;
+}
+
+function renderShard(shard) {
+    let html = '';
+    let number = shard.start;
+    shard.data.forEach((artist, a) => {
+        let cards = '';
+        artist.albums.forEach((album, i) => {
+            const match = searchMatches ? searchMatches[number] : 1;
+            if (match) cards += albumCard(shard, artist, a, album, i, match === 2);
+            number++;
+        });
+        if (!cards) return;
+        if (shard.untagged) {
+            html += cards;
+            return;
+        }
+        const count = artist.albums.length;
+        html += '<div class="artist-section">' +
+            '<div class="artist-header" onclick="showArtistAt(' + shard.id + ', ' + a + ')">' +
+            '<span class="artist-letter">' + escapeHtml(shard.letter) + '</span>' +
+            '<span class="artist-name">' + escapeHtml(artist.name) + '</span>' +
+            '<span class="album-count">' + count + ' album' + (count !== 1 ? 's' : '') + '</span>' +
+            '</div><div class="albums-grid">' + cards + '</div></div>';
+    });
+    const section = shardSection(shard);
+    section.innerHTML = html;
+    section.style.minHeight = '';
+    shard.rendered = true;
+}
+
+function albumCard(shard, artist, a, album, i, trackMatch) {
+    const ref = shard.id + ', ' + a + ', ' + i;
+    let html = '<div class="album-card' + (shard.untagged ? ' untagged-card' : '') + (trackMatch ? ' track-match' : '') +
+        '" onclick="playAlbum(' + ref + ')">';
+    if (shard.untagged) {
+        html += '<span class="untagged-badge">NO TAGS</span>' +
+            '<button class="tag-btn" onclick="event.stopPropagation(); openForTaggingAt(' + ref + ')">&#9998; Tag</button>';
+    }
+    html += '<div class="album-cover">';
+    if (album.cover) {
+        html += '<img src="' + escapeHtml(coverUrl(album)) + '" alt="" loading="lazy" onerror="coverMissing(this)">';
+    } else {
+        html += '<span class="no-cover">&#127925;</span>';
+    }
+    html += '<div class="play-overlay"><div class="play-btn">&#9654;</div></div></div><div class="album-info">';
+    if (shard.untagged) {
+        const folder = folderName(album.path);
+        html += '<div class="album-title" title="' + escapeHtml(folder) + '">' + escapeHtml(folder) + '</div>' +
+            '<div class="album-artist" style="color: #ff6b6b;">Unknown Artist</div>';
+    } else {
+        html += '<div class="album-title" title="' + escapeHtml(album.album || '') + '">' + escapeHtml(album.album || '') + '</div>' +
+            '<div class="album-artist" onclick="event.stopPropagation(); showArtistAt(' + shard.id + ', ' + a + ')">' + escapeHtml(artist.name) + '</div>';
     }
+    html += '<div class="album-year">' + escapeHtml(album.year || 'Unknown') + '</div><div class="album-meta">';
+    if (album.format) html += '<span class="album-tag">' + escapeHtml(album.format) + '</span>';
+    if (album.bitrate) html += '<span class="album-tag">' + album.bitrate + ' kbps</span>';
+    html += '<span class="album-tag">' + album.count + ' tracks</span></div></div></div>';
+    return html;
+}
+
+function coverMissing(img) {
+    img.parentElement.innerHTML = '<span class="no-cover">&#127925;</span>';
 }
 
 // Search
@@ -1342,7 +1414,10 @@ function setupSearch() {
         updateSearchUI();
         applyFilters();
     };
-    input.onfocus = () => document.getElementById('searchHint').classList.add('visible');
+    input.onfocus = () => {
+        loadSearchIndex();
+        document.getElementById('searchHint').classList.add('visible');
+    };
     input.onblur = () => setTimeout(() => document.getElementById('searchHint').classList.remove('visible'), 200);
 }
 
@@ -1370,108 +1445,184 @@ function updateActiveFilters() {
     container.innerHTML = '';
 
     if (format) {
-        container.innerHTML += '<span class="filter-tag">' + format + ' <button onclick="clearFilter(\'format\')">&times;</button></span>';
+        container.innerHTML += '<span class="filter-tag">' + escapeHtml(format) + ' <button onclick="clearFilter(\'format\')">&times;</button></span>';
     }
     if (year) {
-        container.innerHTML += '<span class="filter-tag">' + year + ' <button onclick="clearFilter(\'year\')">&times;</button></span>';
+        container.innerHTML += '<span class="filter-tag">' + escapeHtml(year) + ' <button onclick="clearFilter(\'year\')">&times;</button></span>';
     }
 }
 
-// Apply all filters
-function applyFilters() {
-    const query = document.getElementById('searchInput').value.toLowerCase().trim();
-    const format = document.getElementById('filterFormat').value;
-    const year = document.getElementById('filterYear').value;
-
-    updateActiveFilters();
+function currentFilter() {
+    return {
+        query: document.getElementById('searchInput').value.toLowerCase().trim(),
+        format: document.getElementById('filterFormat').value,
+        year: document.getElementById('filterYear').value,
+        artist: currentView === 'artist' ? currentArtist : null
+    };
+}
 
-    let visibleAlbums = 0;
-    let visibleArtists = 0;
-    let visibleTracks = 0;
-    let matchedTracks = 0;
+function isFiltering(filter) {
+    return filter.query || filter.format || filter.year || filter.artist !== null;
+}
 
-    // Filter main catalog (artist sections)
-    document.querySelectorAll('.artist-section').forEach(section => {
-        if (currentView === 'artist' && section.dataset.artist !== currentArtist) {
-            section.classList.add('hidden');
-            return;
-        }
+function loadSearchIndex() {
+    if (!searchIndexLoading) {
+        searchIndexLoading = new Promise(resolve => {
+            searchIndexLoaded = resolve;
+            const script = document.createElement('script');
+            script.src = searchIndexFile;
+            script.onerror = () => {
+                console.log('Failed to load catalog search index:', searchIndexFile);
+                catalogSearchIndex({ artists: [], formats: [], years: [], artist: [], format: [], year: [],
+                    count: [], title: [], folder: [], tracks: [], trigrams: {} });
+            };
+            document.head.appendChild(script);
+        });
+    }
+    return searchIndexLoading;
+}
 
-        const artistName = section.dataset.artistLower || '';
-        const albums = section.querySelectorAll('.album-card');
-        let hasVisibleAlbum = false;
+// Called by the search index script
+function catalogSearchIndex(index) {
+    index.artistLower = index.artists.map(name => name.toLowerCase());
+    index.titleLower = index.title.map(title => title.toLowerCase());
+    index.folderLower = index.folder.map(folder => folder.toLowerCase());
+    index.tracksLower = index.tracks.map(tracks => tracks.toLowerCase());
+    searchIndex = index;
+    searchIndexLoaded();
+}
 
-        albums.forEach(album => {
-            const albumName = album.dataset.albumLower || '';
-            const albumFormat = album.dataset.format || '';
-            const albumYear = album.dataset.year || '';
-            const trackNames = album.dataset.trackNames || '';
+// Value of each digit of the album lists of the index
+const SEARCH_DIGITS = new Int8Array(128);
+'0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ-_'.split('').forEach((c, i) => SEARCH_DIGITS[c.charCodeAt(0)] = i);
 
-            // Search in artist, album, and track names
-            const matchesArtist = artistName.includes(query);
-            const matchesAlbum = albumName.includes(query);
-            const matchesTrack = trackNames.includes(query);
-            const matchesSearch = !query || matchesArtist || matchesAlbum || matchesTrack;
+// Position in a table of the index, -2 when absent so it matches no album
+function indexOf(table, value) {
+    const i = table.indexOf(value);
+    return i >= 0 ? i : -2;
+}
 
-            const matchesFormat = !format || albumFormat === format;
-            const matchesYear = !year || albumYear === year;
+// Albums that can contain the query: those listed for its rarest trigram,
+// or null to check every album when the query is too short to have one
+function searchCandidates(query) {
+    let rarest = null;
+    for (let i = 0; i + 3 <= query.length; i++) {
+        const trigram = query.substring(i, i + 3);
+        // Not indexed: across two track titles, or half a surrogate pair
+        if (/[|\uD800-\uDFFF]/.test(trigram)) continue;
+        const albums = Object.prototype.hasOwnProperty.call(searchIndex.trigrams, trigram) ? searchIndex.trigrams[trigram] : '';
+        if (rarest === null || albums.length < rarest.length) rarest = albums;
+    }
+    return rarest;
+}
 
-            const visible = matchesSearch && matchesFormat && matchesYear;
-            album.classList.toggle('hidden', !visible);
+// Filter every album of the index: 0 if it is filtered out, 2 if only one of
+// its tracks matches the search, 1 otherwise
+function matchAlbums(filter) {
+    const index = searchIndex;
+    const matches = new Uint8Array(index.count.length);
+    const artist = filter.artist !== null ? indexOf(index.artists, filter.artist) : null;
+    const format = filter.format ? indexOf(index.formats, filter.format) : null;
+    const year = filter.year ? (filter.year === 'Unknown' ? -1 : indexOf(index.years, filter.year)) : null;
+    const query = filter.query;
+
+    const match = number => {
+        const albumArtist = index.artist[number];
+        if (artist !== null && albumArtist >= 0 && albumArtist !== artist) return;
+        if (format !== null && index.format[number] !== format) return;
+        if (year !== null && index.year[number] !== year) return;
+        if (!query) {
+            matches[number] = 1;
+            return;
+        }
 
-            // Highlight if matched by track
-            album.classList.toggle('track-match', visible && matchesTrack && !matchesArtist && !matchesAlbum);
+        // Search in artist (folder for untagged albums), album, and track names
+        const name = albumArtist >= 0 ? index.artistLower[albumArtist] : index.folderLower[number];
+        const matchesName = name.includes(query);
+        const matchesAlbum = index.titleLower[number].includes(query);
+        const matchesTrack = index.tracksLower[number].includes(query);
+        if (!matchesName && !matchesAlbum && !matchesTrack) return;
+        matches[number] = matchesTrack && !matchesName && !matchesAlbum ? 2 : 1;
+    };
 
-            if (visible) {
-                hasVisibleAlbum = true;
-                visibleAlbums++;
-                visibleTracks += parseInt(album.dataset.trackCount || 0);
-                if (matchesTrack && query) matchedTracks++;
+    const candidates = query ? searchCandidates(query) : null;
+    if (candidates !== null) {
+        // Differences between album numbers, in base 32; digits of 32 and up are followed by another one
+        let number = 0;
+        let difference = 0;
+        for (let i = 0; i < candidates.length; i++) {
+            const digit = SEARCH_DIGITS[candidates.charCodeAt(i)];
+            difference = difference * 32 + (digit & 31);
+            if (digit < 32) {
+                number += difference;
+                difference = 0;
+                match(number);
             }
-        });
+        }
+    } else {
+        for (let number = 0; number < matches.length; number++) match(number);
+    }
+    return matches;
+}
 
-        section.classList.toggle('hidden', !hasVisibleAlbum);
-        if (hasVisibleAlbum) visibleArtists++;
-    });
+// Apply all filters
+async function applyFilters() {
+    updateActiveFilters();
 
-    // Filter untagged albums section
-    const untaggedSection = document.getElementById('untaggedSection');
-    const untaggedContent = document.getElementById('untaggedContent');
-    if (untaggedSection && untaggedContent) {
-        const untaggedAlbums = untaggedContent.querySelectorAll('.album-card');
-        let hasVisibleUntagged = false;
-
-        untaggedAlbums.forEach(album => {
-            const albumName = album.dataset.albumLower || '';
-            const albumFormat = album.dataset.format || '';
-            const albumYear = album.dataset.year || '';
-            const trackNames = album.dataset.trackNames || '';
-            const folderName = (album.dataset.path || '').toLowerCase();
-
-            // Search in folder name, album, and track names (no artist for untagged)
-            const matchesFolder = folderName.includes(query);
-            const matchesAlbum = albumName.includes(query);
-            const matchesTrack = trackNames.includes(query);
-            const matchesSearch = !query || matchesFolder || matchesAlbum || matchesTrack;
-
-            const matchesFormat = !format || albumFormat === format;
-            const matchesYear = !year || albumYear === year;
-
-            const visible = matchesSearch && matchesFormat && matchesYear;
-            album.classList.toggle('hidden', !visible);
-
-            // Highlight if matched by track
-            album.classList.toggle('track-match', visible && matchesTrack && !matchesFolder && !matchesAlbum);
-
-            if (visible) {
-                hasVisibleUntagged = true;
-                visibleAlbums++;
-                visibleTracks += parseInt(album.dataset.trackCount || 0);
+    const generation = ++filterGeneration;
+    const filter = currentFilter();
+    const filtering = isFiltering(filter);
+    if (filtering) {
+        await loadSearchIndex();
+        if (generation !== filterGeneration) return;
+    }
+    searchMatches = filtering ? matchAlbums(filter) : null;
+
+    let visibleAlbums = 0;
+    let visibleArtists = 0;
+    let visibleTracks = 0;
+    let visibleUntagged = 0;
+
+    shards.forEach(shard => {
+        if (filtering) {
+            shard.visibleArtists = 0;
+            shard.visibleAlbums = 0;
+            shard.visibleTracks = 0;
+            // Albums of an artist are numbered one after the other
+            let lastArtist = -1;
+            for (let number = shard.start; number < shard.start + shard.albums; number++) {
+                if (!searchMatches[number]) continue;
+                shard.visibleAlbums++;
+                shard.visibleTracks += searchIndex.count[number];
+                const artist = searchIndex.artist[number];
+                if (artist >= 0 && artist !== lastArtist) {
+                    shard.visibleArtists++;
+                    lastArtist = artist;
+                }
             }
-        });
+        } else {
+            shard.visibleArtists = shard.artists;
+            shard.visibleAlbums = shard.albums;
+            shard.visibleTracks = shard.tracks;
+        }
+        visibleAlbums += shard.visibleAlbums;
+        visibleArtists += shard.visibleArtists;
+        visibleTracks += shard.visibleTracks;
+        if (shard.untagged) visibleUntagged += shard.visibleAlbums;
+
+        const section = shardSection(shard);
+        section.classList.toggle('hidden', shard.visibleAlbums === 0);
+        if (shard.rendered) {
+            renderShard(shard);
+        } else {
+            section.style.minHeight = estimateHeight(shard) + 'px';
+        }
+    });
 
-        // Show/hide entire untagged section based on matches
-        untaggedSection.classList.toggle('hidden', !hasVisibleUntagged);
+    // Show/hide entire untagged section based on matches
+    const untaggedSection = document.getElementById('untaggedSection');
+    if (untaggedSection) {
+        untaggedSection.classList.toggle('hidden', visibleUntagged === 0);
     }
 
     // Update stats
@@ -1486,12 +1637,16 @@ function showArtist(artistName) {
     currentArtist = artistName;
 
     document.getElementById('breadcrumb').innerHTML =
-        '<a href="#" onclick="showAllArtists(); return false;">All Artists</a> &rsaquo; ' + artistName;
+        '<a href="#" onclick="showAllArtists(); return false;">All Artists</a> &rsaquo; ' + escapeHtml(artistName);
 
     applyFilters();
     window.scrollTo({ top: 0, behavior: 'smooth' });
 }
 
+function showArtistAt(shardId, artistIndex) {
+    showArtist(shards[shardId].data[artistIndex].name);
+}
+
 // Show all artists
 function showAllArtists() {
     currentView = 'all';
@@ -1502,6 +1657,30 @@ function showAllArtists() {
     applyFilters();
 }
 
+// Paths
+function joinPath(dir, name) {
+    const separator = dir.indexOf('\\') >= 0 && dir.indexOf('/') < 0 ? '\\' : '/';
+    return dir.endsWith(separator) ? dir + name : dir + separator + name;
+}
+
+function folderName(path) {
+    return path.split(/[/\\]/).filter(part => part).pop() || path;
+}
+
+// Thumbnail of the cover, relative to this page, or the original when it has none
+function coverUrl(album) {
+    return album.thumb || fileUrl(joinPath(album.path, album.cover));
+}
+
+function fileUrl(path) {
+    return 'file:///' + path.replace(/\\/g, '/');
+}
+
+function escapeHtml(text) {
+    return String(text).replace(/&/g, '&amp;').replace(/</g, '&lt;').replace(/>/g, '&gt;')
+        .replace(/"/g, '&quot;').replace(/'/g, '&#39;');
+}
+
 // Audio Player
 function setupAudioPlayer() {
     audio.onloadedmetadata = () => {
@@ -1629,15 +1808,17 @@ function closeResumeBanner() {
     if (banner) banner.remove();
 }
 
-function playAlbum(cardElement) {
-    const tracksStr = cardElement.dataset.tracks || '';
-    currentTracks = tracksStr ? tracksStr.split('|') : [];
+function playAlbum(shardId, artistIndex, albumIndex) {
+    const shard = shards[shardId];
+    const artist = shard.data[artistIndex];
+    const album = artist.albums[albumIndex];
+    currentTracks = album.tracks.map(name => joinPath(album.path, name));
     currentTrackIndex = 0;
     currentAlbumData = {
-        artist: cardElement.dataset.artist,
-        album: cardElement.dataset.album,
-        cover: cardElement.dataset.cover,
-        path: cardElement.dataset.path
+        artist: shard.untagged ? (album.artist || '') : artist.name,
+        album: album.album || '',
+        coverUrl: album.cover ? coverUrl(album) : '',
+        path: album.path
     };
 
     if (currentTracks.length > 0) {
@@ -1657,8 +1838,10 @@ function showPlayer() {
 
     // Update cover
     const coverEl = document.getElementById('playerCover');
-    if (currentAlbumData.cover) {
-        coverEl.innerHTML = '<img src="file:///' + currentAlbumData.cover.replace(/\\/g, '/') + '" onerror="this.parentElement.innerHTML=\'&#127925;\'">';
+    // Playback saved by an older catalog has the cover path instead
+    const cover = currentAlbumData.coverUrl || (currentAlbumData.cover ? fileUrl(currentAlbumData.cover) : '');
+    if (cover) {
+        coverEl.innerHTML = '<img src="' + escapeHtml(cover) + '" onerror="this.parentElement.innerHTML=\'&#127925;\'">';
     } else {
         coverEl.innerHTML = '&#127925;';
     }
@@ -1740,6 +1923,10 @@ function toggleUntagged() {
 // Current path being tagged
 let currentTagPath = '';
 
+function openForTaggingAt(shardId, artistIndex, albumIndex) {
+    openForTagging(shards[shardId].data[artistIndex].albums[albumIndex].path);
+}
+
 // Open tagging modal
 function openForTagging(path) {
     currentTagPath = path;
@@ -103,6 +103,10 @@
                         <div class="stat-value ok">${filesCopied}</div>
                         <div class="stat-label">Files Copied</div>
                     </div>
+                    <div class="stat-item">
+                        <div class="stat-value">${filesSkipped}</div>
+                        <div class="stat-label">Files Unchanged</div>
+                    </div>
                     <div class="stat-item">
                         <div class="stat-value error">${filesFailed}</div>
                         <div class="stat-label">Files Failed</div>
@@ -0,0 +1,60 @@
+package io.github.warnotte.audiosorter.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MusicScannerTest {
+
+    private static final int SIBLINGS = 5000;
+
+    @TempDir
+    Path input;
+
+    @Test
+    void parallelScanPublishesEveryReportInSequentialOrder() throws IOException {
+        for (int i = 0; i < SIBLINGS; i++) {
+            Files.createDirectory(input.resolve(String.format("%05d", i)));
+        }
+        // A few nested ones, so subdirectories must come before their parent
+        Files.createDirectories(input.resolve("00042").resolve("a").resolve("b"));
+
+        List<Path> sequential = scan(1, false);
+        assertEquals(SIBLINGS + 3, sequential.size());
+
+        for (int threads : new int[] {4, 8}) {
+            assertEquals(sequential, scan(threads, false), threads + " threads");
+            // Holding up the first report leaves every other one waiting behind it
+            assertEquals(sequential, scan(threads, true), threads + " threads, slow sink");
+        }
+    }
+
+    private List<Path> scan(int threads, boolean slowFirstReport) {
+        List<Path> published = new ArrayList<>();
+        MusicScanner scanner = new MusicScanner(input);
+        scanner.setThreads(threads);
+        scanner.setReportSink(report -> {
+            if (slowFirstReport && published.isEmpty()) {
+                sleep();
+            }
+            published.add(report.getPath());
+        });
+        scanner.scan();
+        return published;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
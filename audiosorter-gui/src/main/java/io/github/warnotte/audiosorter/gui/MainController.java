@@ -1,6 +1,7 @@
 package io.github.warnotte.audiosorter.gui;
 
 import atlantafx.base.theme.*;
+import io.github.warnotte.audiosorter.core.ChannelCopyStrategy;
 import io.github.warnotte.audiosorter.core.MusicScanner;
 import io.github.warnotte.audiosorter.core.MusicSorter;
 import io.github.warnotte.audiosorter.core.SortConfiguration;
@@ -51,6 +52,7 @@ public class MainController {
     @FXML private VBox destFolderBox;
     @FXML private CheckBox openReportCheckbox;
     @FXML private CheckBox onlineSearchCheckbox;
+    @FXML private Spinner<Integer> maxRateSpinner;
     @FXML private Button startButton;
     @FXML private Button cancelButton;
     @FXML private ProgressBar progressBar;
@@ -71,7 +73,7 @@ public class MainController {
     private final Map<String, Theme> themes = new LinkedHashMap<>();
     private Task<?> currentTask;
     private MusicScanner currentScanner;
-    private MusicSorter currentSorter;
+    private volatile MusicSorter currentSorter;
     private Path reportsPath;
 
     private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
@@ -115,6 +117,16 @@ public class MainController {
             }
         });
 
+        // Copy rate limit, applied to a running sort as soon as it changes
+        maxRateSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 10000, 0, 10));
+        maxRateSpinner.valueProperty().addListener((obs, oldVal, newVal) -> {
+            MusicSorter sorter = currentSorter;
+            if (sorter != null && newVal != null) {
+                sorter.setBandwidthLimit(newVal);
+                log(newVal > 0 ? "Copy rate limited to " + newVal + " MB/s" : "Copy rate unlimited");
+            }
+        });
+
         // Initialize theme selector
         themes.put("Dracula", new Dracula());
         themes.put("Nord Dark", new NordDark());
@@ -271,7 +283,11 @@ public class MainController {
                     progressPercent.setText(String.format("0/%d (0%%)", totalFiles));
                 });
 
-                currentSorter = new MusicSorter(destPath);
+                MusicSorter sorter = new MusicSorter(destPath);
+                // Chunked copies so a rate limit also paces large files
+                sorter.setCopyStrategy(new ChannelCopyStrategy(1024 * 1024, false));
+                sorter.setBandwidthLimit(maxRateSpinner.getValue());
+                currentSorter = sorter;
                 GuiSortListener sortListener = new GuiSortListener();
                 sortListener.setTotalFiles(totalFiles);
                 currentSorter.addListener(sortListener);
@@ -740,11 +756,23 @@ public class MainController {
     private class GuiSortListener implements SortProgressListener {
         private int copiedFiles = 0;
         private int totalFiles = 0;
+        // Bytes to process and processed, for the remaining time (0 when not planned up front)
+        private long totalBytes = 0;
+        private long doneBytes = 0;
+        // Both shown in the progress label, so neither update hides the other
+        private String throughput = "";
+        private String rateLimit = "";
 
         public void setTotalFiles(int total) {
             this.totalFiles = total;
         }
 
+        @Override
+        public void onSortPlanned(int files, long totalBytes) {
+            this.totalFiles = files;
+            this.totalBytes = totalBytes;
+        }
+
         @Override
         public void onSortStarted(Path inputDir, Path outputDir, boolean debugMode) {
             Platform.runLater(() -> {
@@ -763,6 +791,7 @@ public class MainController {
         @Override
         public void onFileCopied(FileReport report) {
             copiedFiles++;
+            doneBytes += report.getSizeBytes();
             Platform.runLater(() -> {
                 if (totalFiles > 0) {
                     double progress = (double) copiedFiles / totalFiles;
@@ -774,8 +803,43 @@ public class MainController {
             });
         }
 
+        @Override
+        public void onFileSkipped(FileReport report) {
+            doneBytes += report.getSizeBytes();
+        }
+
+        @Override
+        public void onCopyThroughput(long bytesCopied, double megabytesPerSecond) {
+            throughput = String.format("%.1f MB/s%s", megabytesPerSecond, remainingTime(megabytesPerSecond));
+            showCopyRate();
+        }
+
+        private String remainingTime(double megabytesPerSecond) {
+            if (totalBytes <= 0 || megabytesPerSecond <= 0) {
+                return "";
+            }
+            long seconds = (long) (Math.max(0, totalBytes - doneBytes) / (megabytesPerSecond * 1024 * 1024));
+            return String.format(", %d:%02d left", seconds / 60, seconds % 60);
+        }
+
+        @Override
+        public void onCopyRate(double actualMegabytesPerSecond, double targetMegabytesPerSecond) {
+            rateLimit = targetMegabytesPerSecond > 0
+                ? String.format(" - now %.1f MB/s (limit %.0f MB/s)", actualMegabytesPerSecond, targetMegabytesPerSecond)
+                : "";
+            showCopyRate();
+        }
+
+        private void showCopyRate() {
+            String text = "Copying files... " + throughput + rateLimit;
+            Platform.runLater(() -> {
+                progressLabel.setText(text);
+            });
+        }
+
         @Override
         public void onFileCopyFailed(FileReport report) {
+            doneBytes += report.getSizeBytes();
             Platform.runLater(() -> {
                 log("FAILED: " + report.getSource().getFileName() + " - " + report.getErrorMessage());
             });